@@ -0,0 +1,232 @@
+package crazy8s;
+
+import crazy8s.card.Card;
+import crazy8s.player.IPlayer;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a game to the console. Lines are collected in a buffer and written
+ * in one call when it fills, when the game ends, and before a human is asked
+ * for input, instead of one synchronized println per line. Card and suit
+ * names are precomputed. A renderer belongs to one game and is not thread
+ * safe.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class ConsoleRenderer implements GameListener {
+
+    private final static int BATCH_SIZE = 8192;
+
+    private final static String NEWLINE = System.lineSeparator();
+
+    private final static String[] SUITS = {"", "Clubs", "Diamonds", "Hearts", "Spades"};
+
+    private final PrintStream out;
+
+    private final StringBuilder buffer = new StringBuilder();
+
+    private List<IPlayer> players = List.of();
+
+    /**
+     * Constructor for a renderer writing to standard output
+     */
+    public ConsoleRenderer() {
+        this(System.out);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param out Stream to write to
+     */
+    public ConsoleRenderer(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Remembers the players to print their scores at the end
+     *
+     * @param players Players in turn order
+     */
+    @Override
+    public void started(List<IPlayer> players) {
+        this.players = players;
+    }
+
+    /**
+     * Prints who played what
+     *
+     * @param seat Seat of the player
+     * @param player Player making this play
+     * @param card Card they played
+     */
+    @Override
+    public void played(int seat, IPlayer player, Card card) {
+        name(seat, player).append(" played ").append(card);
+        endLine();
+    }
+
+    /**
+     * Prints the suit declared with an 8
+     *
+     * @param seat Seat of the player
+     * @param player Player who played the 8
+     * @param suit Declared suit
+     */
+    @Override
+    public void suitChanged(int seat, IPlayer player, int suit) {
+        name(seat, player).append(" changed discard suit to ").append(SUITS[suit]);
+        endLine();
+    }
+
+    /**
+     * Prints who drew a card
+     *
+     * @param seat Seat of the player
+     * @param player Player drawing a card
+     * @param card Card drawn from deck
+     */
+    @Override
+    public void drew(int seat, IPlayer player, Card card) {
+        name(seat, player).append(" drew a card.");
+        endLine();
+    }
+
+    /**
+     * Prints the winner and everybody's score, then writes out the buffer
+     *
+     * @param seat Seat of the winner, -1 if nobody won
+     * @param winner Player who went out, null if nobody won
+     * @param score Points earned by the winner
+     */
+    @Override
+    public void gameOver(int seat, IPlayer winner, int score) {
+        buffer.append("Game over");
+        endLine();
+        if (winner == null) {
+            buffer.append("Nobody won");
+        } else {
+            name(seat, winner).append(" won and earned ").append(score).append(" points!");
+        }
+        endLine();
+        for (int index = 0; index < players.size(); index++) {
+            IPlayer player = players.get(index);
+            name(index, player).append(" score:").append(player.getScore());
+            endLine();
+        }
+        flush();
+    }
+
+    /**
+     * Prints the discard card, a player's score and the cards in their hand
+     *
+     * @param player Player giving command
+     * @param rank Rank of the discard card
+     * @param suit Suit of the discard card, the declared suit after an 8
+     */
+    public void show(IPlayer player, int rank, int suit) {
+        buffer.append("Discard card is ").append(Card.name(rank, suit));
+        endLine();
+        buffer.append(player);
+        endLine();
+        buffer.append("Score: ").append(player.getScore());
+        endLine();
+        ArrayList<Card> hand = player.getHand();
+        for (int index = 0; index < hand.size(); index++) {
+            buffer.append(index + 1).append(". ").append(hand.get(index));
+            endLine();
+        }
+    }
+
+    /**
+     * Prints what show() prints and the number of cards in the deck, the
+     * discard pile and every other player's hand
+     *
+     * @param player Player giving command
+     * @param rank Rank of the discard card
+     * @param suit Suit of the discard card, the declared suit after an 8
+     * @param deckSize Number of cards in the deck
+     * @param discardSize Number of cards in the discard pile
+     */
+    public void refresh(IPlayer player, int rank, int suit, int deckSize, int discardSize) {
+        show(player, rank, suit);
+        buffer.append("Number of cards in deck: ").append(deckSize);
+        endLine();
+        buffer.append("Number of cards in discard pile: ").append(discardSize);
+        endLine();
+        if (players.size() <= 2) {
+            buffer.append("Number of cards in opponent's hand: ").append(player.getOPHS());
+            endLine();
+            return;
+        }
+        for (int index = 0; index < players.size(); index++) {
+            IPlayer other = players.get(index);
+            if (other != player) {
+                buffer.append("Number of cards in ");
+                name(index, other).append("'s hand: ").append(other.getHand().size());
+                endLine();
+            }
+        }
+    }
+
+    /**
+     * Prints that a command was not understood
+     */
+    public void invalidCommand() {
+        buffer.append("Invalid command");
+        endLine();
+    }
+
+    /**
+     * Prints the commands a human can give
+     */
+    public void instructions() {
+        buffer.append("New game:").append(NEWLINE);
+        buffer.append("Commands:").append(NEWLINE);
+        buffer.append("s = Shows discard card, your score, and cards in your hand").append(NEWLINE);
+        buffer.append("r = Does 's' command and shows number of cards in the deck, the discard pile, and the opponent's hand").append(NEWLINE);
+        buffer.append("d = Draws a card").append(NEWLINE);
+        buffer.append("q = Quits the game").append(NEWLINE);
+        buffer.append("Index number of card in hand = Plays that card");
+        endLine();
+    }
+
+    /**
+     * Writes out everything buffered
+     */
+    public void flush() {
+        if (buffer.length() > 0) {
+            out.append(buffer);
+            out.flush();
+            buffer.setLength(0);
+        }
+    }
+
+    /**
+     * Starts a line with a player's name, numbered by seat at tables of more
+     * than two where several players share a name
+     *
+     * @param seat Seat of the player
+     * @param player Player
+     * @return buffer
+     */
+    private StringBuilder name(int seat, IPlayer player) {
+        buffer.append(player);
+        if (players.size() > 2) {
+            buffer.append(' ').append(seat + 1);
+        }
+        return buffer;
+    }
+
+    /**
+     * Ends a line, writing out the buffer once it is full
+     */
+    private void endLine() {
+        buffer.append(NEWLINE);
+        if (buffer.length() >= BATCH_SIZE) {
+            flush();
+        }
+    }
+}
@@ -1,17 +1,30 @@
 package crazy8s;
 
+import crazy8s.ai.GameState;
 import crazy8s.card.Card;
+import crazy8s.card.Cards;
 import static crazy8s.card.Card.CLUBS;
 import static crazy8s.card.Card.DIAMONDS;
 import static crazy8s.card.Card.HEARTS;
 import static crazy8s.card.Card.SPADES;
 import crazy8s.card.Deck;
+import crazy8s.card.Hand;
+import crazy8s.card.Rules;
+import crazy8s.log.GameLog;
+import crazy8s.metrics.GameMetrics;
+import crazy8s.player.AsyncPlayer;
 import crazy8s.player.Command;
 import crazy8s.player.Human;
 import crazy8s.player.IPlayer;
 import crazy8s.player.Opponent;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.random.RandomGenerator;
 
 /**
  * Game class which implements Crazy 8s play rules.
@@ -20,19 +33,234 @@ import java.util.Collections;
  */
 public class Game {
 
+    /**
+     * Turn limit for games played with play(). Two players can trade 8s back
+     * and forth through the reshuffled discard pile forever.
+     */
+    public final static int MAX_TURNS = 1000;
+
+    /**
+     * Fewest players at a table
+     */
+    public final static int MIN_PLAYERS = 2;
+
+    /**
+     * Most players at a table
+     */
+    public final static int MAX_PLAYERS = 8;
+
+    /**
+     * Cards dealt to each player
+     */
+    public final static int HAND_SIZE = 8;
+
+    /**
+     * Version of the format written by save()
+     */
+    public final static int SAVE_VERSION = 1;
+
+    /**
+     * Most bytes save() writes
+     */
+    public final static int MAX_SAVE_SIZE = 17 + 5 * MAX_PLAYERS + 9 + 52 * Deck.MAX_DECKS;
+
     protected ArrayList<IPlayer> players;
 
     protected Deck deck;
 
+    private final RandomGenerator random;
+
+    protected boolean headless;
+
+    protected ArrayList<GameListener> listeners = new ArrayList<>();
+
+    protected ConsoleRenderer renderer;
+
+    protected GameLog log;
+
+    protected int turns;
+
+    protected int draws;
+
+    protected int eights;
+
+    protected GameMetrics metrics;
+
+    private int decisions;
+
+    private long askedAt;
+
+    protected AsyncPlayer[] deciders;
+
+    protected int seat;
+
+    protected int passes;
+
+    protected Executor executor;
+
+    protected CompletableFuture<GameResult> result;
+
     /**
      * Constructor
      */
     public Game() {
-        players = new ArrayList<>();
-        players.add(new Human());
-        players.add(new Opponent());
-        Collections.shuffle(players);
-        deck = new Deck();
+        this(new Human(), new Opponent());
+    }
+
+    /**
+     * Constructor for a human against computer opponents
+     *
+     * @param opponents Number of opponents, from 1 to MAX_PLAYERS - 1
+     */
+    public Game(int opponents) {
+        this(lineup(opponents));
+    }
+
+    /**
+     * Constructor for a game between the given players
+     *
+     * @param players Players taking part, in any order
+     */
+    public Game(IPlayer... players) {
+        this(new SplittableRandom(), players);
+    }
+
+    /**
+     * Constructor for a reproducible game. The same seed and players give the
+     * same seating, deal and shuffles.
+     *
+     * @param seed Seed of the seating and the deck
+     * @param players Players taking part, in any order
+     */
+    public Game(long seed, IPlayer... players) {
+        this(new SplittableRandom(seed), players);
+    }
+
+    /**
+     * Constructor, dealing from as many decks as the table needs
+     *
+     * @param random Random source for the seating and the deck
+     * @param players Players taking part, in any order
+     * @see #decksFor(int)
+     */
+    public Game(RandomGenerator random, IPlayer... players) {
+        this(random, decksFor(players.length), players);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param random Random source for the seating and the deck
+     * @param decks Number of decks in the shoe
+     * @param players Players taking part, in any order
+     */
+    public Game(RandomGenerator random, int decks, IPlayer... players) {
+        if (players.length < MIN_PLAYERS || players.length > MAX_PLAYERS) {
+            throw new IllegalArgumentException("a game needs " + MIN_PLAYERS + " to " + MAX_PLAYERS + " players");
+        }
+        this.players = new ArrayList<>();
+        Collections.addAll(this.players, players);
+        for (int index = this.players.size() - 1; index > 0; index--) {
+            Collections.swap(this.players, index, random.nextInt(index + 1));
+        }
+        this.random = random;
+        deck = new Deck(random, decks);
+        setHeadless(false);
+    }
+
+    /**
+     * Gets the number of decks a table needs. Up to four players share one
+     * deck; larger tables deal from a shoe of two, so enough cards are left
+     * to draw.
+     *
+     * @param players Number of players
+     * @return Number of decks
+     */
+    public static int decksFor(int players) {
+        return players <= 4 ? 1 : 2;
+    }
+
+    /**
+     * Builds a human and computer opponents
+     *
+     * @param opponents Number of opponents
+     * @return The players
+     */
+    protected static IPlayer[] lineup(int opponents) {
+        IPlayer[] players = new IPlayer[opponents + 1];
+        players[0] = new Human();
+        for (int index = 1; index < players.length; index++) {
+            players[index] = new Opponent();
+        }
+        return players;
+    }
+
+    /**
+     * Gets the players
+     *
+     * @return Players in turn order, not to be modified
+     */
+    public List<IPlayer> getPlayers() {
+        return Collections.unmodifiableList(players);
+    }
+
+    /**
+     * Records every event of the game in a binary log
+     *
+     * @param log Log to append to, null to stop logging
+     */
+    public void setLog(GameLog log) {
+        if (this.log != null) {
+            removeListener(this.log);
+        }
+        this.log = log;
+        if (log != null) {
+            addListener(log);
+        }
+    }
+
+    /**
+     * Records counters and decision latencies of the game
+     *
+     * @param metrics Metrics to add to, null for none
+     */
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Adds a listener for the events of the game
+     *
+     * @param listener Listener
+     */
+    public void addListener(GameListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener
+     *
+     * @param listener Listener
+     */
+    public void removeListener(GameListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Turns console output on or off. A headless game has no renderer, so
+     * nothing at all is formatted or written.
+     *
+     * @param headless true to play without console output
+     */
+    public void setHeadless(boolean headless) {
+        this.headless = headless;
+        if (headless && renderer != null) {
+            removeListener(renderer);
+            renderer = null;
+        } else if (!headless && renderer == null) {
+            renderer = new ConsoleRenderer();
+            addListener(renderer);
+        }
     }
 
     /**
@@ -65,18 +293,31 @@ public class Game {
      * Deals cards to both players
      */
     protected void deal() {
-        for (int index = 0; index < 8; index++) {
-            for (IPlayer player : players) {
-                ArrayList<Card> hand = player.getHand();
+        for (int index = 0; index < listeners.size(); index++) {
+            listeners.get(index).started(players);
+        }
+        for (int index = 0; index < HAND_SIZE; index++) {
+            for (int seat = 0; seat < players.size(); seat++) {
+                ArrayList<Card> hand = players.get(seat).getHand();
                 Card card = deck.draw();
                 hand.add(card);
+                for (int each = 0; each < listeners.size(); each++) {
+                    listeners.get(each).dealt(seat, card);
+                }
             }
         }
         Card card = deck.draw();
         deck.discard(card);
+        for (int index = 0; index < listeners.size(); index++) {
+            listeners.get(index).turnedUp(card);
+        }
         for (IPlayer player : players) {
             player.played(player, card);
         }
+        List<IPlayer> table = Collections.unmodifiableList(players);
+        for (IPlayer player : players) {
+            player.seated(table, deck.getDecks());
+        }
 
     }
 
@@ -87,21 +328,42 @@ public class Game {
      * @param index Index of card in hand to be played
      */
     protected void doPlay(IPlayer player, int index) {
+        int suit = 0;
+        if (player.getHand().get(index).getRank() == 8) {
+            beforeInput(player);
+            suit = askSuit(player);
+        }
+        doPlay(player, index, suit);
+    }
+
+    /**
+     * Runs the command to play a card whose suit, if it is an 8, is already
+     * known
+     *
+     * @param player Player playing a card
+     * @param index Index of card in hand to be played
+     * @param suit Suit declared with an 8
+     */
+    protected void doPlay(IPlayer player, int index, int suit) {
         Card card = player.getHand().remove(index);
-        System.out.println(player + " played " + card);
-        if (card.getRank() == 8) {
-            int suit = player.getSuit();
-            for (IPlayer eachPlayer : players) {
-                eachPlayer.setSuit(suit);
-            }
-            player.setSuit(suit);
-            card.setSuit(suit);
-            System.out.println(player + " changed discard suit to " + card.decodeSuit());
+        int seat = players.indexOf(player);
+        for (int each = 0; each < listeners.size(); each++) {
+            listeners.get(each).played(seat, player, card);
         }
         deck.discard(card);
         for (IPlayer eachPlayer : players) {
             eachPlayer.played(player, card);
         }
+        if (card.getRank() == 8) {
+            eights++;
+            deck.setDiscardSuit(suit);
+            for (IPlayer eachPlayer : players) {
+                eachPlayer.setSuit(suit);
+            }
+            for (int each = 0; each < listeners.size(); each++) {
+                listeners.get(each).suitChanged(seat, player, suit);
+            }
+        }
         if (player instanceof Human) {
             doShow(player);
         }
@@ -117,10 +379,14 @@ public class Game {
         Card card = deck.draw();
         ArrayList<Card> hand = player.getHand();
         hand.add(card);
+        int seat = players.indexOf(player);
+        for (int each = 0; each < listeners.size(); each++) {
+            listeners.get(each).drew(seat, player, card);
+        }
         for (IPlayer eachPlayer : players) {
             eachPlayer.drew(player, card);
         }
-        System.out.println(player + " drew a card.");
+        draws++;
         if (player instanceof Human) {
             doShow(player);
         }
@@ -133,16 +399,8 @@ public class Game {
      * @param player Player giving command
      */
     protected void doShow(IPlayer player) {
-        Card discard = new Card(deck.getDiscardRank(), deck.getDiscardSuit());
-        System.out.println("Discard card is " + discard);
-
-        System.out.println(player);
-        System.out.println("Score: " + player.getScore());
-
-        ArrayList<Card> hand = player.getHand();
-        for (int index = 0; index < hand.size(); index++) {
-            Card card = hand.get(index);
-            System.out.println((index + 1) + ". " + card);
+        if (renderer != null) {
+            renderer.show(player, deck.getDiscardRank(), deck.getDiscardSuit());
         }
     }
 
@@ -154,11 +412,20 @@ public class Game {
      * @param player Player giving command
      */
     protected void doRefresh(IPlayer player) {
-        doShow(player);
-        System.out.println("Number of cards in deck: " + deck.cards.size());
-        System.out.println("Number of cards in discard pile: " + deck.discards.size());
-        System.out.println("Number of cards in opponent's hand: " + player.getOPHS());
+        if (renderer != null) {
+            renderer.refresh(player, deck.getDiscardRank(), deck.getDiscardSuit(), deck.size(), deck.discardSize());
+        }
+    }
 
+    /**
+     * Writes out pending console output before a human is asked for input
+     *
+     * @param player Player about to be asked
+     */
+    protected void beforeInput(IPlayer player) {
+        if (renderer != null && player instanceof Human) {
+            renderer.flush();
+        }
     }
 
     /**
@@ -194,35 +461,57 @@ public class Game {
      */
     protected int checkOut(IPlayer player) {
         if (player.getHand().size() < 1) {
-            System.out.println("Game over");
             int score = sumScore(player);
-            System.out.println(player + " won and earned " + score + " points!");
             player.setScore(player.getScore() + score);
-            for (IPlayer p : players) {
-                System.out.println(p + " score:" + p.getScore());
-            }
+            finish(player, players.indexOf(player), score);
             return 1;
         }
         return 0;
     }
 
     /**
-     * Starts a new game
+     * Starts a new game at the same table, carrying each player's score over
      */
     protected void newGame() {
-        Game game = new Game();
-        game.go();
+        reset();
+        deal();
+        if (renderer != null) {
+            renderer.instructions();
+        }
+    }
+
+    /**
+     * Gets the table ready for another game with the same players in the
+     * same seats. Hands go back into the deck, which is shuffled, the players
+     * forget the last game and the counters start over. Scores are kept.
+     * The deck and the hands keep their storage, so a session can reuse one
+     * game for as many games as it likes.
+     */
+    public void reset() {
+        for (IPlayer player : players) {
+            player.getHand().clear();
+            player.reset();
+        }
+        deck.reset();
+        turns = 0;
+        draws = 0;
+        eights = 0;
+        seat = 0;
+        passes = 0;
+        result = null;
     }
 
     /**
      * Main game loop
      */
     protected void loop() {
+        game:
         while (true) {
             playerLoop:
             for (IPlayer player : players) {
                 do {
-                    int command = player.getCommand();
+                    beforeInput(player);
+                    int command = askCommand(player);
                     switch (command) {
                         case Command.SHOW:
                             doShow(player);
@@ -231,17 +520,41 @@ public class Game {
                             doRefresh(player);
                             break;
                         case Command.DRAW:
+                            if (!isLegal(player, command)) {
+                                rejected(player, command);
+                                break;
+                            }
+                            if (!deck.canDraw()) {
+                                // Every card is in a hand: a pass, as in play()
+                                if (++passes == players.size()) {
+                                    finish(null, -1, 0);
+                                    newGame();
+                                    continue game;
+                                }
+                                continue playerLoop;
+                            }
                             doDraw(player);
                             break;
                         case Command.QUIT:
+                            if (renderer != null) {
+                                renderer.flush();
+                            }
                             System.exit(0);
                         case Command.NO_COMMAND:
-                            System.out.println("Invalid command");
+                            if (renderer != null) {
+                                renderer.invalidCommand();
+                            }
                             continue;
                         default:
+                            if (!isLegal(player, command)) {
+                                rejected(player, command);
+                                continue;
+                            }
+                            passes = 0;
                             doPlay(player, command);
                             if (checkOut(player) == 1) {
                                 newGame();
+                                continue game;
                             }
                             continue playerLoop;
                     }
@@ -250,18 +563,501 @@ public class Game {
         }
     }
 
+    /**
+     * Plays one complete game without any console I/O. Players keep drawing
+     * until they can play, as in the main game loop. A player who cannot play
+     * and cannot draw because every card is in a hand passes; if every player
+     * passes in a row, or the game reaches MAX_TURNS, the game is blocked and
+     * nobody wins.
+     *
+     * @return Result of the game
+     */
+    public GameResult play() {
+        setHeadless(true);
+        deal();
+        passes = 0;
+        while (turns < MAX_TURNS) {
+            for (seat = 0; seat < players.size(); seat++) {
+                IPlayer player = players.get(seat);
+                turns++;
+                int command = askCommand(player);
+                while (true) {
+                    if (command == Command.QUIT) {
+                        return finish(null, -1, 0);
+                    }
+                    boolean move = command == Command.DRAW || (command >= 0 && command < Command.SHOW);
+                    if (move && !isLegal(player, command)) {
+                        rejected(player, command);
+                    } else if (move && (command != Command.DRAW || !deck.canDraw())) {
+                        break;
+                    } else if (move) {
+                        doDraw(player);
+                    }
+                    command = askCommand(player);
+                }
+                if (command == Command.DRAW) {
+                    if (++passes == players.size()) {
+                        return finish(null, -1, 0);
+                    }
+                    continue;
+                }
+                passes = 0;
+                doPlay(player, command);
+                if (player.getHand().isEmpty()) {
+                    int score = sumScore(player);
+                    player.setScore(player.getScore() + score);
+                    return finish(player, seat, score);
+                }
+            }
+        }
+        return finish(null, -1, 0);
+    }
+
+    /**
+     * Plays one complete game without blocking. Each turn asks the player to
+     * move through AsyncPlayer; when the answer is not ready the game returns
+     * and resumes on the executor once it is. Bots answer at once, so their
+     * turns run straight through. The rules are those of play().
+     *
+     * @param executor Executor to resume the game on
+     * @return Future of the result of the game
+     */
+    public CompletableFuture<GameResult> playAsync(Executor executor) {
+        deal();
+        turns++;
+        settled();
+        return resumeAsync(executor);
+    }
+
+    /**
+     * Goes on with a game brought back by restore(), without dealing, as
+     * playAsync() would have
+     *
+     * @param executor Executor to resume the game on
+     * @return Future of the result of the game
+     */
+    public CompletableFuture<GameResult> resumeAsync(Executor executor) {
+        this.executor = executor;
+        deciders = new AsyncPlayer[players.size()];
+        for (int index = 0; index < deciders.length; index++) {
+            deciders[index] = AsyncPlayer.of(players.get(index));
+        }
+        result = new CompletableFuture<>();
+        resume();
+        return result;
+    }
+
+    /**
+     * Runs turns until the game ends or waits for a player
+     */
+    protected void resume() {
+        try {
+            while (!result.isDone()) {
+                beforeInput(players.get(seat));
+                askedAt = isTimed() ? System.nanoTime() : 0;
+                CompletableFuture<Integer> command = deciders[seat].requestCommand();
+                if (!command.isDone()) {
+                    command.whenCompleteAsync(this::onCommand, executor);
+                    return;
+                }
+                answered(false);
+                if (!command(command.join())) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Resumes the game with a command that was not ready. A failed or
+     * cancelled request is asked again of whoever holds the seat by then.
+     *
+     * @param command Encoded command
+     * @param failure Why the request failed, null if it did not
+     */
+    private void onCommand(Integer command, Throwable failure) {
+        answered(false);
+        try {
+            if (failure == null && !command(command)) {
+                return;
+            }
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        resume();
+    }
+
+    /**
+     * Carries out a command of the player in the current seat
+     *
+     * @param command Encoded command
+     * @return true if the game can go on straight away, false if it ended or
+     * waits for the player's suit
+     */
+    private boolean command(int command) {
+        IPlayer player = players.get(seat);
+        switch (command) {
+            case Command.SHOW:
+                doShow(player);
+                return true;
+            case Command.REFRESH:
+                doRefresh(player);
+                return true;
+            case Command.QUIT:
+                end(null);
+                return false;
+            case Command.NO_COMMAND:
+                if (renderer != null) {
+                    renderer.invalidCommand();
+                }
+                return true;
+            case Command.DRAW:
+                if (!isLegal(player, command)) {
+                    rejected(player, command);
+                    return true;
+                }
+                if (deck.canDraw()) {
+                    doDraw(player);
+                    settled();
+                    return true;
+                }
+                if (++passes == players.size()) {
+                    end(null);
+                    return false;
+                }
+                return next();
+            default:
+                if (!isLegal(player, command)) {
+                    rejected(player, command);
+                    return true;
+                }
+                if (player.getHand().get(command).getRank() != 8) {
+                    return play(command, 0);
+                }
+                beforeInput(player);
+                askedAt = isTimed() ? System.nanoTime() : 0;
+                CompletableFuture<Integer> suit = deciders[seat].requestSuit();
+                if (suit.isDone()) {
+                    answered(true);
+                    return play(command, suit.join());
+                }
+                suit.whenCompleteAsync((chosen, failure) -> {
+                    answered(true);
+                    if (failure == null && !play(command, chosen)) {
+                        return;
+                    }
+                    resume();
+                }, executor);
+                return false;
+        }
+    }
+
+    /**
+     * Plays a card for the player in the current seat
+     *
+     * @param index Index of card in hand
+     * @param suit Suit declared with an 8
+     * @return true if the game goes on
+     */
+    private boolean play(int index, int suit) {
+        IPlayer player = players.get(seat);
+        passes = 0;
+        doPlay(player, index, suit);
+        if (player.getHand().isEmpty()) {
+            end(player);
+            return false;
+        }
+        return next();
+    }
+
+    /**
+     * Moves the turn to the next seat, ending the game at MAX_TURNS
+     *
+     * @return true if the game goes on
+     */
+    private boolean next() {
+        seat = (seat + 1) % players.size();
+        if (turns >= MAX_TURNS) {
+            end(null);
+            return false;
+        }
+        turns++;
+        settled();
+        return true;
+    }
+
+    /**
+     * Called by playAsync() after every move, once the table is ready for
+     * the next one. Games that checkpoint themselves override this to call
+     * save().
+     */
+    protected void settled() {
+    }
+
+    /**
+     * Writes the game so that restore() can carry on with it: seating,
+     * scores, hands, the deck in order, the discard pile, the suit to follow,
+     * the player to move and the counters. Save between the moves of
+     * playAsync(); it takes at most MAX_SAVE_SIZE bytes and does not
+     * allocate.
+     *
+     * @param buffer Buffer with room for the save
+     */
+    public void save(ByteBuffer buffer) {
+        buffer.put((byte) SAVE_VERSION);
+        buffer.put((byte) players.size());
+        buffer.put((byte) deck.getDecks());
+        buffer.put((byte) seat);
+        buffer.put((byte) passes);
+        buffer.putInt(turns);
+        buffer.putInt(draws);
+        buffer.putInt(eights);
+        for (int index = 0; index < players.size(); index++) {
+            IPlayer player = players.get(index);
+            ArrayList<Card> hand = player.getHand();
+            buffer.putInt(player.getScore());
+            buffer.put((byte) hand.size());
+            for (int card = 0; card < hand.size(); card++) {
+                buffer.put((byte) hand.get(card).getIndex());
+            }
+        }
+        deck.save(buffer);
+    }
+
+    /**
+     * Brings back a game written by save(). The players take the saved
+     * seats, scores and hands, and learn the discard card, the declared suit
+     * and everyone's hand size as if dealt in; anything else they had
+     * worked out is lost. A save with another number of decks gets a new
+     * shoe shuffled from the game's own random source. Carry on with
+     * resumeAsync().
+     *
+     * @param buffer Buffer positioned where save() started writing
+     * @param seats Players in the order of getPlayers() when the game was
+     * saved
+     * @throws IllegalArgumentException If the save is from another version,
+     * another number of players or is corrupt
+     */
+    public void restore(ByteBuffer buffer, IPlayer... seats) {
+        int version = buffer.get();
+        if (version != SAVE_VERSION) {
+            throw new IllegalArgumentException("unknown save version " + version);
+        }
+        int count = buffer.get();
+        if (count != seats.length) {
+            throw new IllegalArgumentException("the game was saved with " + count + " players");
+        }
+        int decks = buffer.get();
+        if (decks < 1 || decks > Deck.MAX_DECKS) {
+            throw new IllegalArgumentException("the game was saved with " + decks + " decks");
+        }
+        int seat = buffer.get();
+        int passes = buffer.get();
+        if (seat < 0 || seat >= count || passes < 0 || passes >= count) {
+            throw new IllegalArgumentException("the saved turn is not at the table");
+        }
+        turns = buffer.getInt();
+        draws = buffer.getInt();
+        eights = buffer.getInt();
+        players.clear();
+        int[] copies = new int[Cards.COUNT];
+        for (IPlayer player : seats) {
+            players.add(player);
+            player.setScore(buffer.getInt());
+            ArrayList<Card> hand = player.getHand();
+            hand.clear();
+            int size = buffer.get() & 0xff;
+            for (int index = 0; index < size; index++) {
+                int card = buffer.get();
+                if (card < 0 || card >= Cards.COUNT) {
+                    throw new IllegalArgumentException("saved card " + card + " does not exist");
+                }
+                hand.add(Card.of(card));
+                copies[card]++;
+            }
+        }
+        if (deck.getDecks() != decks) {
+            deck = new Deck(random, decks);
+        }
+        deck.restore(buffer);
+        deck.tally(copies);
+        for (int card = 0; card < Cards.COUNT; card++) {
+            if (copies[card] != decks) {
+                throw new IllegalArgumentException("the saved game has " + copies[card] + " copies of card " + card);
+            }
+        }
+        this.seat = seat;
+        this.passes = passes;
+
+        Card top = deck.getDiscard();
+        for (IPlayer player : players) {
+            player.played(player, top);
+            if (top.getRank() == 8) {
+                player.setSuit(deck.getDiscardSuit());
+            }
+        }
+        List<IPlayer> table = Collections.unmodifiableList(players);
+        for (IPlayer player : players) {
+            player.seated(table, decks);
+        }
+    }
+
+    /**
+     * Records how long the player in the current seat took to answer a
+     * request of playAsync()
+     *
+     * @param suit true for a suit, false for a command
+     */
+    private void answered(boolean suit) {
+        if (askedAt == 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - askedAt;
+        if (suit) {
+            metrics.recordSuit(players.get(seat), nanos);
+        } else {
+            metrics.recordCommand(players.get(seat), nanos);
+        }
+    }
+
+    /**
+     * Decides whether to time the next decision
+     *
+     * @return true if metrics are recorded and sample this decision
+     */
+    private boolean isTimed() {
+        return metrics != null && metrics.isSampled(decisions++);
+    }
+
+    /**
+     * Gets a command from a player, timing it if metrics sample it
+     *
+     * @param player Player to ask
+     * @return Encoded command
+     */
+    protected int askCommand(IPlayer player) {
+        if (!isTimed()) {
+            return player.getCommand();
+        }
+        long start = System.nanoTime();
+        int command = player.getCommand();
+        metrics.recordCommand(player, System.nanoTime() - start);
+        return command;
+    }
+
+    /**
+     * Gets the suit of an 8 from a player, timing it if metrics sample it
+     *
+     * @param player Player to ask
+     * @return Encoded suit
+     */
+    protected int askSuit(IPlayer player) {
+        if (!isTimed()) {
+            return player.getSuit();
+        }
+        long start = System.nanoTime();
+        int suit = player.getSuit();
+        metrics.recordSuit(player, System.nanoTime() - start);
+        return suit;
+    }
+
+    /**
+     * Gets the table as a GameState for search. The order of the deck is not
+     * kept, so draws from the state are random.
+     *
+     * @param turn Seat of the player to move
+     * @return State with the same seats, hands and piles
+     * @throws IllegalStateException if the table plays with a shoe
+     */
+    public GameState getState(int turn) {
+        if (deck.getDecks() != 1) {
+            throw new IllegalStateException("GameState holds one deck");
+        }
+        long[] hands = new long[players.size()];
+        for (int index = 0; index < hands.length; index++) {
+            hands[index] = Hand.maskOf(players.get(index).getHand());
+        }
+        return new GameState(hands, deck.getDeckMask(), deck.getPileMask(), deck.getDiscard().getIndex(),
+                deck.getDiscardSuit(), turn);
+    }
+
+    /**
+     * Checks a command against the rules before it is carried out. Drawing is
+     * allowed only without a legal play.
+     *
+     * @param player Player to move
+     * @param command DRAW or index of the card to play
+     * @return true if the command may be carried out
+     */
+    protected boolean isLegal(IPlayer player, int command) {
+        int rank = deck.getDiscardRank();
+        int suit = deck.getDiscardSuit();
+        if (command == Command.DRAW) {
+            return !Rules.canPlay(rank, suit, Hand.maskOf(player.getHand()));
+        }
+        if (command < 0 || command >= player.getHand().size()) {
+            return false;
+        }
+        return Rules.isLegal(rank, suit, player.getHand().get(command).getIndex());
+    }
+
+    /**
+     * Handles a command that breaks the rules. Every player here checks its
+     * own moves, so this is a bug in the player. Games whose players may send
+     * anything override this to report the mistake; the player is then
+     * asked again.
+     *
+     * @param player Player who moved
+     * @param command DRAW or index of the card to play
+     */
+    protected void rejected(IPlayer player, int command) {
+        throw new IllegalStateException(player + " broke the rules with command " + command);
+    }
+
+    /**
+     * Ends a game played with playAsync(), scoring the winner
+     *
+     * @param winner Player who went out, null if nobody won
+     */
+    protected void end(IPlayer winner) {
+        if (winner == null) {
+            result.complete(finish(null, -1, 0));
+            return;
+        }
+        int score = sumScore(winner);
+        winner.setScore(winner.getScore() + score);
+        result.complete(finish(winner, players.indexOf(winner), score));
+    }
+
+    /**
+     * Ends a game played with play() or playAsync()
+     *
+     * @param winner Player who went out, null if nobody won
+     * @param seat Seat of the winner, -1 if nobody won
+     * @param score Points earned by the winner
+     * @return Result of the game
+     */
+    protected GameResult finish(IPlayer winner, int seat, int score) {
+        if (metrics != null) {
+            metrics.recordGame(turns, draws, eights, deck.getReshuffles(), winner != null);
+        }
+        for (int index = 0; index < listeners.size(); index++) {
+            listeners.get(index).gameOver(seat, winner, score);
+        }
+        return new GameResult(winner, seat, score, turns, draws);
+    }
+
     /**
      * Deals card, shows instructions and starts main game loop
      */
     public void go() {
         deal();
-        System.out.println("New game:");
-        System.out.println("Commands:");
-        System.out.println("s = Shows discard card, your score, and cards in your hand");
-        System.out.println("r = Does 's' command and shows number of cards in the deck, the discard pile, and the opponent's hand");
-        System.out.println("d = Draws a card");
-        System.out.println("q = Quits the game");
-        System.out.println("Index number of card in hand = Plays that card");
+        if (renderer != null) {
+            renderer.instructions();
+        }
         loop();
 
     }
@@ -269,10 +1065,10 @@ public class Game {
     /**
      * Play the game
      *
-     * @param args Command line arguments
+     * @param args Number of computer opponents, default 1
      */
     public static void main(String[] args) {
-        Game game = new Game();
+        Game game = new Game(args.length > 0 ? Integer.parseInt(args[0]) : 1);
         System.out.println("Welcome to Crazy 8s!");
         game.go();
     }
@@ -0,0 +1,80 @@
+package crazy8s;
+
+import crazy8s.card.Card;
+import crazy8s.player.IPlayer;
+import java.util.List;
+
+/**
+ * Receives the events of a game as they happen. Every method does nothing
+ * by default, so a listener only implements the events it needs. Listeners
+ * are called on the game's thread and must not block.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public interface GameListener {
+
+    /**
+     * Reports the start of a game, before the deal.
+     *
+     * @param players Players in turn order
+     */
+    public default void started(List<IPlayer> players) {
+    }
+
+    /**
+     * Reports a card dealt to a player.
+     *
+     * @param seat Seat of the player
+     * @param card Card dealt
+     */
+    public default void dealt(int seat, Card card) {
+    }
+
+    /**
+     * Reports the first discard turned up after the deal.
+     *
+     * @param card Card turned up
+     */
+    public default void turnedUp(Card card) {
+    }
+
+    /**
+     * Reports a card played.
+     *
+     * @param seat Seat of the player
+     * @param player Player making this play
+     * @param card Card they played
+     */
+    public default void played(int seat, IPlayer player, Card card) {
+    }
+
+    /**
+     * Reports the suit declared with an 8.
+     *
+     * @param seat Seat of the player
+     * @param player Player who played the 8
+     * @param suit Declared suit
+     */
+    public default void suitChanged(int seat, IPlayer player, int suit) {
+    }
+
+    /**
+     * Reports a card drawn.
+     *
+     * @param seat Seat of the player
+     * @param player Player drawing a card
+     * @param card Card drawn from deck
+     */
+    public default void drew(int seat, IPlayer player, Card card) {
+    }
+
+    /**
+     * Reports the end of a game, after the winner's score was updated.
+     *
+     * @param seat Seat of the winner, -1 if nobody won
+     * @param winner Player who went out, null if nobody won
+     * @param score Points earned by the winner
+     */
+    public default void gameOver(int seat, IPlayer winner, int score) {
+    }
+}
@@ -0,0 +1,96 @@
+package crazy8s;
+
+import crazy8s.player.IPlayer;
+
+/**
+ * Outcome of one game played without console I/O.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class GameResult {
+
+    private final IPlayer winner;
+
+    private final int seat;
+
+    private final int score;
+
+    private final int turns;
+
+    private final int draws;
+
+    /**
+     * Constructor
+     *
+     * @param winner Player who went out, null if nobody won
+     * @param seat Seat of the winner in turn order, -1 if nobody won
+     * @param score Points earned by the winner
+     * @param turns Number of turns taken
+     * @param draws Number of cards drawn after the deal
+     */
+    public GameResult(IPlayer winner, int seat, int score, int turns, int draws) {
+        this.winner = winner;
+        this.seat = seat;
+        this.score = score;
+        this.turns = turns;
+        this.draws = draws;
+    }
+
+    /**
+     * Gets the player who won
+     *
+     * @return winner Winning player, null if the game was blocked or quit
+     */
+    public IPlayer getWinner() {
+        return winner;
+    }
+
+    /**
+     * Gets the seat of the player who won
+     *
+     * @return seat Index in turn order, -1 if nobody won
+     */
+    public int getSeat() {
+        return seat;
+    }
+
+    /**
+     * Gets the points earned by the winner
+     *
+     * @return score Sum of the card values left in the other hands
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the number of turns taken
+     *
+     * @return turns Number of turns
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * Gets the number of cards drawn after the deal
+     *
+     * @return draws Number of draws
+     */
+    public int getDraws() {
+        return draws;
+    }
+
+    /**
+     * Converts me to a string
+     *
+     * @return String describing the outcome
+     */
+    @Override
+    public String toString() {
+        if (winner == null) {
+            return "No winner after " + turns + " turns and " + draws + " draws";
+        }
+        return winner + " won " + score + " points after " + turns + " turns and " + draws + " draws";
+    }
+}
@@ -0,0 +1,141 @@
+package crazy8s;
+
+import crazy8s.player.IPlayer;
+import crazy8s.player.Opponent;
+import java.util.Collections;
+
+/**
+ * A session of consecutive games between the same players at one table. The
+ * Game, its Deck and the players are built once and reset between games, so
+ * a session runs in constant stack and heap however many games it lasts.
+ * Scores carry over from game to game, and the first turn passes round the
+ * table.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class Match {
+
+    private final Game game;
+
+    private int games;
+
+    private int blocked;
+
+    /**
+     * Constructor
+     *
+     * @param players Players, seated in random order
+     */
+    public Match(IPlayer... players) {
+        this(new Game(players));
+    }
+
+    /**
+     * Constructor for a reproducible session
+     *
+     * @param seed Seed of the seating and every shuffle
+     * @param players Players, seated in random order
+     */
+    public Match(long seed, IPlayer... players) {
+        this(new Game(seed, players));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param game Table to play every game at, not yet dealt
+     */
+    public Match(Game game) {
+        this.game = game;
+    }
+
+    /**
+     * Plays the next game without console I/O
+     *
+     * @return Result of the game
+     */
+    public GameResult next() {
+        if (games > 0) {
+            game.reset();
+            Collections.rotate(game.players, -1);
+        }
+        games++;
+        GameResult result = game.play();
+        if (result.getWinner() == null) {
+            blocked++;
+        }
+        return result;
+    }
+
+    /**
+     * Plays games until a player's score reaches a target
+     *
+     * @param target Score that ends the match
+     * @return Player who reached it
+     */
+    public IPlayer playTo(int target) {
+        while (true) {
+            IPlayer winner = next().getWinner();
+            if (winner != null && winner.getScore() >= target) {
+                return winner;
+            }
+        }
+    }
+
+    /**
+     * Gets the table
+     *
+     * @return game Game reused for every game of the match
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Gets the number of games played
+     *
+     * @return games Number of games
+     */
+    public int getGames() {
+        return games;
+    }
+
+    /**
+     * Gets the number of games nobody won
+     *
+     * @return blocked Number of blocked games
+     */
+    public int getBlocked() {
+        return blocked;
+    }
+
+    /**
+     * Plays a long session between computer opponents and reports the scores
+     * and the memory in use
+     *
+     * @param args Number of games, default 1000000; number of players,
+     * default 2
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        IPlayer[] players = new IPlayer[size];
+        for (int index = 0; index < size; index++) {
+            players[index] = new Opponent();
+        }
+        Match match = new Match(players);
+        long start = System.nanoTime();
+        for (int index = 0; index < count; index++) {
+            match.next();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(match.getGames() + " games, " + match.getBlocked() + " blocked, "
+                + Math.round(count / seconds) + " games/s");
+        for (int index = 0; index < size; index++) {
+            System.out.println("Player " + (index + 1) + ": " + players[index].getScore());
+        }
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.out.println("Heap in use: " + (runtime.totalMemory() - runtime.freeMemory()) / 1024 + " KB");
+    }
+}
@@ -0,0 +1,259 @@
+package crazy8s.ai;
+
+import crazy8s.card.Cards;
+import crazy8s.card.Rules;
+import java.util.random.RandomGenerator;
+
+/**
+ * What one player knows about the cards they cannot see, in a heads-up game.
+ * It follows the discard pile, the size of the deck and the other hand, and
+ * the cards the other player has shown they do not hold. Every event is a few
+ * mask operations.
+ *
+ * A player only draws when they cannot play, so a draw shows they hold no 8,
+ * nothing of the discard rank and nothing of the suit to follow. That holds
+ * for every card they held before the draw. Cards drawn since are "fresh"
+ * and unconstrained until the next draw. If a rule is broken, say by a player
+ * who draws while able to play, the knowledge is dropped.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class BeliefState {
+
+    private final int handSize;
+
+    private int top;
+
+    private int suit;
+
+    private long pile;
+
+    private int deckSize;
+
+    private int otherHandSize;
+
+    private long lacks;
+
+    private int fresh;
+
+    /**
+     * Constructor
+     *
+     * @param handSize Number of cards dealt to each player
+     */
+    public BeliefState(int handSize) {
+        this.handSize = handSize;
+        clear();
+    }
+
+    /**
+     * Forgets everything, as before the deal
+     */
+    public void clear() {
+        top = -1;
+        suit = 0;
+        pile = 0;
+        deckSize = Cards.COUNT - 2 * handSize - 1;
+        otherHandSize = handSize;
+        lacks = 0;
+        fresh = 0;
+    }
+
+    /**
+     * Starts over from a table seen part way through a game, as after a
+     * restore. Only the discard, the suit to follow and the other hand's
+     * size are known; the cards under the discard count as unseen, as if
+     * shuffled into the deck. Straight after the deal this is the same as
+     * clear() and played() with the card turned up.
+     *
+     * @param hand Mask of my cards
+     * @param top Card index of the discard
+     * @param suit Suit to follow
+     * @param otherHandSize Number of cards in the other hand
+     */
+    public void seat(long hand, int top, int suit, int otherHandSize) {
+        clear();
+        this.top = top;
+        this.suit = suit;
+        this.otherHandSize = otherHandSize;
+        deckSize = Long.bitCount(unseen(hand)) - otherHandSize;
+    }
+
+    /**
+     * Records a card put on the discard pile
+     *
+     * @param mine true if I played it or it was turned up at the deal
+     * @param card Card index
+     * @param suit Suit of the card, until declared() says otherwise
+     */
+    public void played(boolean mine, int card, int suit) {
+        if (top != -1) {
+            pile |= Cards.bit(top);
+        }
+        top = card;
+        this.suit = suit;
+        if (mine) {
+            return;
+        }
+        otherHandSize--;
+        if (fresh > 0) {
+            fresh--;
+        } else if ((lacks & Cards.bit(card)) != 0) {
+            lacks = 0;
+        }
+    }
+
+    /**
+     * Records the suit declared with the 8 on top of the discard pile
+     *
+     * @param suit Declared suit
+     */
+    public void declared(int suit) {
+        this.suit = suit;
+    }
+
+    /**
+     * Records a card drawn from the deck, reshuffling the discard pile under
+     * the top card into the deck if it is empty
+     *
+     * @param mine true if I drew it
+     */
+    public void drew(boolean mine) {
+        if (deckSize == 0) {
+            deckSize = Long.bitCount(pile);
+            pile = 0;
+        }
+        deckSize--;
+        if (mine) {
+            return;
+        }
+        long shown = Rules.legal(Cards.rank(top), suit);
+        lacks = fresh == 0 ? lacks | shown : shown;
+        fresh = 1;
+        otherHandSize++;
+    }
+
+    /**
+     * Gets the cards I have not seen, which are in the deck or the other hand
+     *
+     * @param hand Mask of my cards
+     * @return Mask of unseen cards
+     */
+    public long unseen(long hand) {
+        return Cards.ALL & ~hand & ~pile & ~Cards.bit(top);
+    }
+
+    /**
+     * Gets the discard pile under the top card
+     *
+     * @return Mask of cards in the discard pile
+     */
+    public long getPile() {
+        return pile;
+    }
+
+    /**
+     * Gets the discard card
+     *
+     * @return Card index of the top of the discard pile
+     */
+    public int getTop() {
+        return top;
+    }
+
+    /**
+     * Gets the suit to follow
+     *
+     * @return Suit of the discard card, or the declared suit after an 8
+     */
+    public int getSuit() {
+        return suit;
+    }
+
+    /**
+     * Gets the number of cards left in the deck
+     *
+     * @return deckSize Number of cards in the deck
+     */
+    public int getDeckSize() {
+        return deckSize;
+    }
+
+    /**
+     * Gets the number of cards in the other player's hand
+     *
+     * @return otherHandSize Number of cards
+     */
+    public int getOtherHandSize() {
+        return otherHandSize;
+    }
+
+    /**
+     * Gets the cards the other player has shown they do not hold, not
+     * counting cards drawn since
+     *
+     * @return Mask of cards ruled out
+     */
+    public long getLacks() {
+        return lacks;
+    }
+
+    /**
+     * Checks whether the other player has shown they hold no card of a suit
+     * other than cards drawn since
+     *
+     * @param suit Suit to check
+     * @return true if the suit was ruled out
+     */
+    public boolean lacksSuit(int suit) {
+        return (Cards.SUIT_MASKS[suit] & ~lacks) == 0;
+    }
+
+    /**
+     * Deals a possible hand for the other player out of the unseen cards,
+     * keeping ruled-out cards away from all but the fresh cards. Safe to call
+     * from several threads with their own scratch array and random source.
+     *
+     * @param hand Mask of my cards
+     * @param random Random source
+     * @param scratch Array of at least 52 ints
+     * @return Mask of the other player's hand
+     */
+    public long sample(long hand, RandomGenerator random, int[] scratch) {
+        long unseen = unseen(hand);
+        long allowed = unseen & ~lacks;
+        int constrained = otherHandSize - fresh;
+        if (Long.bitCount(allowed) < constrained) {
+            // The other player broke a rule we assumed
+            allowed = unseen;
+        }
+        long other = pick(allowed, constrained, random, scratch);
+        return other | pick(unseen & ~other, otherHandSize - Long.bitCount(other), random, scratch);
+    }
+
+    /**
+     * Picks cards at random out of a mask
+     *
+     * @param cards Mask to pick from
+     * @param count Number of cards to pick, at most all of them
+     * @param random Random source
+     * @param scratch Array of at least 52 ints
+     * @return Mask of the cards picked
+     */
+    private static long pick(long cards, int count, RandomGenerator random, int[] scratch) {
+        int size = 0;
+        for (; cards != 0; cards &= cards - 1) {
+            scratch[size++] = Long.numberOfTrailingZeros(cards);
+        }
+        long picked = 0;
+        count = Math.min(count, size);
+        for (int index = 0; index < count; index++) {
+            int swap = index + random.nextInt(size - index);
+            int card = scratch[swap];
+            scratch[swap] = scratch[index];
+            scratch[index] = card;
+            picked |= Cards.bit(card);
+        }
+        return picked;
+    }
+}
@@ -0,0 +1,387 @@
+package crazy8s.ai;
+
+import crazy8s.card.Cards;
+import java.util.SplittableRandom;
+
+/**
+ * Solves heads-up endgames by expectimax once the hands are small and the
+ * deck is nearly used up. Player nodes are searched with alpha-beta, draws
+ * are chance nodes averaged over every card left in the deck, and values are
+ * the points the player to move wins or loses. Moves are applied to and taken
+ * back from one GameState per deal. Positions are Zobrist hashed into a
+ * fixed-size transposition table that is kept from move to move.
+ *
+ * The other hand is not known, so each move is decided over a handful of
+ * deals sampled from the BeliefState, deepening the search until every deal
+ * is solved exactly or the time budget runs out.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class EndgameSolver {
+
+    private final static int HAND_0 = 0;
+
+    private final static int HAND_1 = 1;
+
+    private final static int DECK = 2;
+
+    private final static int PILE = 3;
+
+    private final static long[][] PLACE_KEYS = new long[4][Cards.COUNT];
+
+    private final static long[] TOP_KEYS = new long[Cards.COUNT];
+
+    private final static long[] SUIT_KEYS = new long[5];
+
+    private final static long[] PASS_KEYS = new long[3];
+
+    private final static long TURN_KEY;
+
+    private final static int EXACT = 0;
+
+    private final static int LOWER = 1;
+
+    private final static int UPPER = 2;
+
+    private final static int SOLVED = Byte.MAX_VALUE;
+
+    private final static int MAX_DEPTH = 60;
+
+    private final static int SAMPLES = 16;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x8C8C8C8CL);
+        for (long[] keys : PLACE_KEYS) {
+            for (int card = 0; card < keys.length; card++) {
+                keys[card] = random.nextLong();
+            }
+        }
+        for (int card = 0; card < TOP_KEYS.length; card++) {
+            TOP_KEYS[card] = random.nextLong();
+        }
+        for (int suit = 1; suit < SUIT_KEYS.length; suit++) {
+            SUIT_KEYS[suit] = random.nextLong();
+        }
+        PASS_KEYS[1] = random.nextLong();
+        PASS_KEYS[2] = random.nextLong();
+        TURN_KEY = random.nextLong();
+    }
+
+    private final int maxCards;
+
+    private final int maxDeck;
+
+    private final long millis;
+
+    private final long[] keys;
+
+    private final float[] values;
+
+    private final byte[] depths;
+
+    private final byte[] bounds;
+
+    private final int mask;
+
+    private final SplittableRandom random = new SplittableRandom();
+
+    private final int[] scratch = new int[Cards.COUNT];
+
+    private final int[][] moves = new int[MAX_DEPTH + 2][GameState.MAX_MOVES];
+
+    private long deadline;
+
+    private boolean aborted;
+
+    private int nodes;
+
+    private int horizonHits;
+
+    /**
+     * Constructor
+     *
+     * @param maxCards Largest number of cards in both hands to solve
+     * @param maxDeck Largest number of cards left in the deck to solve
+     * @param millis Time budget per move in milliseconds
+     * @param tableBits Log2 of the number of transposition table entries
+     */
+    public EndgameSolver(int maxCards, int maxDeck, long millis, int tableBits) {
+        this.maxCards = maxCards;
+        this.maxDeck = maxDeck;
+        this.millis = millis;
+        int size = 1 << tableBits;
+        keys = new long[size];
+        values = new float[size];
+        depths = new byte[size];
+        bounds = new byte[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Checks whether a position is small enough to solve
+     *
+     * @param hand Mask of my cards
+     * @param belief What I know about the other cards
+     * @return true if search() should be used for this move
+     */
+    public boolean covers(long hand, BeliefState belief) {
+        return Long.bitCount(hand) + belief.getOtherHandSize() <= maxCards
+                && belief.getDeckSize() <= maxDeck;
+    }
+
+    /**
+     * Finds the move with the best average value over sampled deals
+     *
+     * @param hand Mask of my cards
+     * @param belief What I know about the other cards
+     * @return Move to make, ISMCTS.DRAW if no card can be played
+     */
+    public synchronized int search(long hand, BeliefState belief) {
+        GameState root = new GameState(2);
+        root.hands[0] = hand;
+        root.top = belief.getTop();
+        root.suit = belief.getSuit();
+        root.pile = belief.getPile();
+        int[] rootMoves = new int[GameState.MAX_MOVES];
+        int count = root.moves(rootMoves);
+        if (count == 1) {
+            return rootMoves[0] == GameState.PASS ? ISMCTS.DRAW : rootMoves[0];
+        }
+
+        // When the deck is empty the other hand is known exactly
+        long unseen = belief.unseen(hand);
+        int samples = belief.getDeckSize() == 0 ? 1 : SAMPLES;
+        GameState[] deals = new GameState[samples];
+        for (int index = 0; index < samples; index++) {
+            deals[index] = root.copy();
+            long other = belief.sample(hand, random, scratch);
+            deals[index].hands[1] = other;
+            deals[index].deck = unseen & ~other;
+        }
+
+        deadline = System.nanoTime() + millis * 1000000;
+        aborted = false;
+        double[] best = new double[count];
+        for (int depth = 2; depth <= MAX_DEPTH; depth += 2) {
+            double[] totals = new double[count];
+            horizonHits = 0;
+            for (GameState deal : deals) {
+                long hash = hash(deal);
+                for (int index = 0; index < count && !aborted; index++) {
+                    totals[index] += value(deal, hash, rootMoves[index], depth);
+                }
+            }
+            if (aborted) {
+                break;
+            }
+            best = totals;
+            if (horizonHits == 0) {
+                break;
+            }
+        }
+
+        int bestIndex = 0;
+        for (int index = 1; index < count; index++) {
+            if (best[index] > best[bestIndex]) {
+                bestIndex = index;
+            }
+        }
+        return rootMoves[bestIndex] == GameState.DRAW ? ISMCTS.DRAW : rootMoves[bestIndex];
+    }
+
+    /**
+     * Gets the exact value of one root move in one deal
+     *
+     * @param deal Deal to search
+     * @param hash Hash of the deal
+     * @param move Move of the player to move
+     * @param depth Plies to search after the move
+     * @return Points won by the player to move
+     */
+    private double value(GameState deal, long hash, int move, int depth) {
+        if (move == GameState.DRAW) {
+            return chance(deal, hash, 0, depth);
+        }
+        return -after(deal, hash, move, 0, depth, -Double.MAX_VALUE, Double.MAX_VALUE);
+    }
+
+    /**
+     * Searches a position with alpha-beta
+     *
+     * @param state Position with the player to move about to move
+     * @param hash Hash of the position
+     * @param ply Plies from the root, indexing the work arrays
+     * @param depth Plies left to search
+     * @param alpha Lower bound of interest
+     * @param beta Upper bound of interest
+     * @return Points won by the player to move
+     */
+    private double negamax(GameState state, long hash, int ply, int depth, double alpha, double beta) {
+        if (state.winner != -1) {
+            int points = Cards.points(state.hands[0] | state.hands[1]);
+            return state.winner == state.turn ? points : -points;
+        }
+        if (state.passes >= 2) {
+            return 0;
+        }
+        if (depth <= 0 || ply >= MAX_DEPTH) {
+            horizonHits++;
+            return (Cards.points(state.hands[state.turn ^ 1]) - Cards.points(state.hands[state.turn])) / 2.0;
+        }
+        if ((++nodes & 1023) == 0 && System.nanoTime() >= deadline) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+
+        int slot = (int) hash & mask;
+        if (keys[slot] == hash && depths[slot] >= depth) {
+            double stored = values[slot];
+            if (depths[slot] != SOLVED) {
+                horizonHits++;
+            }
+            if (bounds[slot] == EXACT
+                    || (bounds[slot] == LOWER && stored >= beta)
+                    || (bounds[slot] == UPPER && stored <= alpha)) {
+                return stored;
+            }
+        }
+
+        int hitsBefore = horizonHits;
+        double originalAlpha = alpha;
+        int[] list = moves[ply];
+        int count = state.moves(list);
+        double best = -Double.MAX_VALUE;
+        for (int index = 0; index < count; index++) {
+            int move = list[index];
+            double value = move == GameState.DRAW
+                    ? chance(state, hash, ply, depth)
+                    : -after(state, hash, move, ply, depth, -beta, -alpha);
+            if (aborted) {
+                return 0;
+            }
+            if (value > best) {
+                best = value;
+            }
+            if (value > alpha) {
+                alpha = value;
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+
+        keys[slot] = hash;
+        values[slot] = (float) best;
+        depths[slot] = (byte) (horizonHits == hitsBefore ? SOLVED : depth);
+        bounds[slot] = (byte) (best <= originalAlpha ? UPPER : best >= beta ? LOWER : EXACT);
+        return best;
+    }
+
+    /**
+     * Plays a card or passes and searches the position after it
+     *
+     * @param state Position before the move
+     * @param hash Hash of the position
+     * @param move Play or PASS
+     * @param ply Plies from the root
+     * @param depth Plies left to search before the move
+     * @param alpha Lower bound of interest for the next player
+     * @param beta Upper bound of interest for the next player
+     * @return Points won by the player to move next
+     */
+    private double after(GameState state, long hash, int move, int ply, int depth, double alpha, double beta) {
+        int turn = state.turn;
+        int top = state.top;
+        int suit = state.suit;
+        long childHash = hash ^ PASS_KEYS[state.passes];
+        state.applyMove(move);
+        childHash ^= PASS_KEYS[state.passes];
+        if (move != GameState.PASS) {
+            int card = GameState.card(move);
+            childHash ^= PLACE_KEYS[turn][card] ^ PLACE_KEYS[PILE][top]
+                    ^ TOP_KEYS[top] ^ TOP_KEYS[card]
+                    ^ SUIT_KEYS[suit] ^ SUIT_KEYS[state.suit];
+        }
+        if (state.turn != turn) {
+            childHash ^= TURN_KEY;
+        }
+        double value;
+        if (state.winner != -1) {
+            // Score from the winner's side, who is still the player to move
+            value = -negamax(state, childHash, ply + 1, depth - 1, -beta, -alpha);
+        } else {
+            value = negamax(state, childHash, ply + 1, depth - 1, alpha, beta);
+        }
+        state.undoMove();
+        return value;
+    }
+
+    /**
+     * Averages the positions after every card the player to move could draw
+     *
+     * @param state Position before the draw
+     * @param hash Hash of the position
+     * @param ply Plies from the root
+     * @param depth Plies left to search before the draw
+     * @return Expected points won by the drawing player
+     */
+    private double chance(GameState state, long hash, int ply, int depth) {
+        long deck = state.deck;
+        long baseHash = hash ^ PASS_KEYS[state.passes] ^ PASS_KEYS[0];
+        if (deck == 0) {
+            for (long cards = state.pile; cards != 0; cards &= cards - 1) {
+                int card = Long.numberOfTrailingZeros(cards);
+                baseHash ^= PLACE_KEYS[PILE][card] ^ PLACE_KEYS[DECK][card];
+            }
+            deck = state.pile;
+        }
+
+        int turn = state.turn;
+        double total = 0;
+        for (long cards = deck; cards != 0; cards &= cards - 1) {
+            int card = Long.numberOfTrailingZeros(cards);
+            state.applyDraw(card);
+            long childHash = baseHash ^ PLACE_KEYS[DECK][card] ^ PLACE_KEYS[turn][card];
+            total += negamax(state, childHash, ply + 1, depth - 1, -Double.MAX_VALUE, Double.MAX_VALUE);
+            state.undoMove();
+            if (aborted) {
+                return 0;
+            }
+        }
+        return total / Long.bitCount(deck);
+    }
+
+    /**
+     * Hashes a position from scratch
+     *
+     * @param state Position to hash
+     * @return Zobrist hash
+     */
+    private static long hash(GameState state) {
+        long hash = TOP_KEYS[state.top] ^ SUIT_KEYS[state.suit] ^ PASS_KEYS[state.passes];
+        if (state.turn == 1) {
+            hash ^= TURN_KEY;
+        }
+        hash ^= hash(PLACE_KEYS[HAND_0], state.hands[0]);
+        hash ^= hash(PLACE_KEYS[HAND_1], state.hands[1]);
+        hash ^= hash(PLACE_KEYS[DECK], state.deck);
+        return hash ^ hash(PLACE_KEYS[PILE], state.pile);
+    }
+
+    /**
+     * Hashes the cards of one place
+     *
+     * @param placeKeys Keys of the place
+     * @param cards Mask of cards in the place
+     * @return XOR of their keys
+     */
+    private static long hash(long[] placeKeys, long cards) {
+        long hash = 0;
+        for (; cards != 0; cards &= cards - 1) {
+            hash ^= placeKeys[Long.numberOfTrailingZeros(cards)];
+        }
+        return hash;
+    }
+}
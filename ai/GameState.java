@@ -0,0 +1,457 @@
+package crazy8s.ai;
+
+import crazy8s.card.Card;
+import crazy8s.card.Cards;
+import crazy8s.card.Rules;
+import java.util.random.RandomGenerator;
+
+/**
+ * Table state for search and rollouts, with every hand and pile stored as a
+ * card mask, so it holds one deck. The deck is kept as a set rather than an
+ * order, so a draw takes a random card from it. Moves are encoded in an int,
+ * see play(), DRAW and PASS, and every move applied can be undone in turn
+ * without allocating.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public final class GameState {
+
+    /**
+     * Move for drawing a card when no card can be played
+     */
+    public final static int DRAW = 1 << 10;
+
+    /**
+     * Move for passing when no card can be played or drawn
+     */
+    public final static int PASS = DRAW + 1;
+
+    /**
+     * Most moves a player can have: one per card, four for each 8
+     */
+    public final static int MAX_MOVES = Cards.COUNT + 12;
+
+    /**
+     * Ply limit after which a game is scored as blocked
+     */
+    public final static int MAX_PLIES = 400;
+
+    final long[] hands;
+
+    long deck;
+
+    long pile;
+
+    int top;
+
+    int suit;
+
+    int turn;
+
+    int passes;
+
+    int plies;
+
+    int winner = -1;
+
+    /**
+     * Moves applied since the last copy, each packed with what undoMove()
+     * needs to take it back
+     */
+    private final int[] history = new int[MAX_PLIES];
+
+    private int undos;
+
+    /**
+     * Constructor for an empty table
+     *
+     * @param players Number of players from 2 to 8
+     */
+    public GameState(int players) {
+        if (players < 2 || players > 8) {
+            throw new IllegalArgumentException("a table seats 2 to 8 players");
+        }
+        hands = new long[players];
+    }
+
+    /**
+     * Constructor
+     *
+     * @param hands Mask of each player's cards, by seat
+     * @param deck Mask of the cards in the deck
+     * @param pile Mask of the discard pile under the top card
+     * @param top Card index of the discard card
+     * @param suit Suit to follow
+     * @param turn Seat of the player to move
+     */
+    public GameState(long[] hands, long deck, long pile, int top, int suit, int turn) {
+        this(hands.length);
+        System.arraycopy(hands, 0, this.hands, 0, hands.length);
+        this.deck = deck;
+        this.pile = pile;
+        this.top = top;
+        this.suit = suit;
+        this.turn = turn;
+    }
+
+    /**
+     * Encodes playing a card
+     *
+     * @param card Card index
+     * @param suit Declared suit if the card is an 8, otherwise 0
+     * @return Encoded move
+     */
+    public static int play(int card, int suit) {
+        return card << 3 | suit;
+    }
+
+    /**
+     * Gets the card of a play
+     *
+     * @param move Encoded move
+     * @return Card index
+     */
+    public static int card(int move) {
+        return move >> 3;
+    }
+
+    /**
+     * Gets the declared suit of a play
+     *
+     * @param move Encoded move
+     * @return Suit declared with an 8, otherwise 0
+     */
+    public static int suit(int move) {
+        return move & 7;
+    }
+
+    /**
+     * Copies me. The copy cannot undo my moves.
+     *
+     * @return New state equal to me
+     */
+    public GameState copy() {
+        GameState copy = new GameState(hands.length);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Copies another state into me without allocating. I cannot undo its
+     * moves.
+     *
+     * @param other State with the same number of players
+     */
+    public void copyFrom(GameState other) {
+        System.arraycopy(other.hands, 0, hands, 0, hands.length);
+        deck = other.deck;
+        pile = other.pile;
+        top = other.top;
+        suit = other.suit;
+        turn = other.turn;
+        passes = other.passes;
+        plies = other.plies;
+        winner = other.winner;
+        undos = 0;
+    }
+
+    /**
+     * Checks whether the game has ended
+     *
+     * @return true if someone went out or the game is blocked
+     */
+    public boolean isOver() {
+        return winner != -1 || passes >= hands.length || plies >= MAX_PLIES;
+    }
+
+    /**
+     * Gets the mask of cards the player to move may play
+     *
+     * @return Mask of playable cards in hand
+     */
+    public long playable() {
+        return Rules.legalMoves(Cards.rank(top), suit, hands[turn]);
+    }
+
+    /**
+     * Lists the moves of the player to move. Each 8 gives one move per suit.
+     *
+     * @param moves Array of at least MAX_MOVES to fill
+     * @return Number of moves
+     */
+    public int moves(int[] moves) {
+        long cards = playable();
+        if (cards == 0) {
+            moves[0] = deck != 0 || pile != 0 ? DRAW : PASS;
+            return 1;
+        }
+        int count = 0;
+        for (; cards != 0; cards &= cards - 1) {
+            int card = Long.numberOfTrailingZeros(cards);
+            if (Cards.rank(card) == 8) {
+                for (int s = Card.CLUBS; s <= Card.SPADES; s++) {
+                    moves[count++] = play(card, s);
+                }
+            } else {
+                moves[count++] = play(card, 0);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Picks a move for a quick playout: a random playable card, declaring the
+     * suit the player holds most of after an 8
+     *
+     * @param random Random source
+     * @return Encoded move
+     */
+    public int rolloutMove(RandomGenerator random) {
+        long cards = playable();
+        if (cards == 0) {
+            return deck != 0 || pile != 0 ? DRAW : PASS;
+        }
+        int card = nth(cards, random.nextInt(Long.bitCount(cards)));
+        if (Cards.rank(card) != 8) {
+            return play(card, 0);
+        }
+        long rest = hands[turn] & ~Cards.EIGHTS;
+        int best = Cards.suit(card);
+        int bestCount = 0;
+        for (int s = Card.CLUBS; s <= Card.SPADES; s++) {
+            int count = Long.bitCount(rest & Cards.SUIT_MASKS[s]);
+            if (count > bestCount) {
+                bestCount = count;
+                best = s;
+            }
+        }
+        return play(card, best);
+    }
+
+    /**
+     * Applies a move of the player to move
+     *
+     * @param move Encoded move
+     * @param random Random source for draws, unused for other moves
+     */
+    public void applyMove(int move, RandomGenerator random) {
+        if (move != DRAW) {
+            applyMove(move);
+            return;
+        }
+        long cards = deck != 0 ? deck : pile;
+        applyDraw(nth(cards, random.nextInt(Long.bitCount(cards))));
+    }
+
+    /**
+     * Plays a card or passes for the player to move
+     *
+     * @param move Encoded play or PASS
+     */
+    public void applyMove(int move) {
+        remember(move, false);
+        plies++;
+        if (move == PASS) {
+            passes++;
+            turn = next(turn);
+            return;
+        }
+        passes = 0;
+        int card = card(move);
+        hands[turn] &= ~Cards.bit(card);
+        pile |= Cards.bit(top);
+        top = card;
+        suit = Cards.rank(card) == 8 ? suit(move) : Cards.suit(card);
+        if (hands[turn] == 0) {
+            winner = turn;
+            return;
+        }
+        turn = next(turn);
+    }
+
+    /**
+     * Draws a chosen card for the player to move, who then moves again. If
+     * the deck is empty the discard pile is shuffled into it first.
+     *
+     * @param card Card index, in the deck or, if the deck is empty, the pile
+     */
+    public void applyDraw(int card) {
+        boolean reshuffled = deck == 0;
+        remember(play(card, 0) | DRAW << 1, reshuffled);
+        if (reshuffled) {
+            deck = pile;
+            pile = 0;
+        }
+        plies++;
+        passes = 0;
+        deck &= ~Cards.bit(card);
+        hands[turn] |= Cards.bit(card);
+    }
+
+    /**
+     * Takes back the last move applied since I was built or copied
+     */
+    public void undoMove() {
+        if (undos == 0) {
+            throw new IllegalStateException("no move to undo");
+        }
+        int entry = history[--undos];
+        int move = entry & 0xfff;
+        turn = entry >>> 12 & 7;
+        passes = entry >>> 15 & 15;
+        plies--;
+        winner = -1;
+        if (move == PASS) {
+            return;
+        }
+        int card = card(move & (DRAW - 1));
+        if ((move & DRAW << 1) != 0) {
+            hands[turn] &= ~Cards.bit(card);
+            deck |= Cards.bit(card);
+            if ((entry & 1 << 31) != 0) {
+                pile = deck;
+                deck = 0;
+            }
+            return;
+        }
+        hands[turn] |= Cards.bit(card);
+        top = entry >>> 19 & 63;
+        suit = entry >>> 25 & 7;
+        pile &= ~Cards.bit(top);
+    }
+
+    /**
+     * Records what undoMove() needs before a move changes me
+     *
+     * @param move Encoded move, with DRAW shifted up for draws
+     * @param reshuffled true if the move shuffles the pile into the deck
+     */
+    private void remember(int move, boolean reshuffled) {
+        if (undos == history.length) {
+            throw new IllegalStateException("more than " + MAX_PLIES + " moves to undo");
+        }
+        history[undos++] = move | turn << 12 | passes << 15 | top << 19 | suit << 25
+                | (reshuffled ? 1 << 31 : 0);
+    }
+
+    /**
+     * Plays random moves to the end of the game
+     *
+     * @param random Random source
+     */
+    public void rollout(RandomGenerator random) {
+        while (!isOver()) {
+            applyMove(rolloutMove(random), random);
+        }
+    }
+
+    /**
+     * Scores the finished game for a seat
+     *
+     * @param seat Seat to score for
+     * @return 1 for a win, 0 for a loss, an equal share if nobody won
+     */
+    public double reward(int seat) {
+        if (winner == -1) {
+            return 1.0 / hands.length;
+        }
+        return winner == seat ? 1 : 0;
+    }
+
+    /**
+     * Gets the seat after another
+     *
+     * @param seat Seat
+     * @return Next seat around the table
+     */
+    private int next(int seat) {
+        return seat + 1 == hands.length ? 0 : seat + 1;
+    }
+
+    /**
+     * Gets the number of players
+     *
+     * @return Number of seats
+     */
+    public int getPlayers() {
+        return hands.length;
+    }
+
+    /**
+     * Gets a player's hand
+     *
+     * @param seat Seat of the player
+     * @return Mask of their cards
+     */
+    public long getHand(int seat) {
+        return hands[seat];
+    }
+
+    /**
+     * Gets the cards in the deck
+     *
+     * @return Mask of the deck
+     */
+    public long getDeck() {
+        return deck;
+    }
+
+    /**
+     * Gets the discard pile under the top card
+     *
+     * @return Mask of the pile
+     */
+    public long getPile() {
+        return pile;
+    }
+
+    /**
+     * Gets the discard card
+     *
+     * @return Card index of the top of the discard pile
+     */
+    public int getTop() {
+        return top;
+    }
+
+    /**
+     * Gets the suit to follow
+     *
+     * @return Suit of the discard card, or the declared suit after an 8
+     */
+    public int getSuit() {
+        return suit;
+    }
+
+    /**
+     * Gets the player to move
+     *
+     * @return Seat of the player to move, or of the winner
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    /**
+     * Gets the winner
+     *
+     * @return Seat of the player who went out, -1 if nobody has
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Finds the n-th card of a mask
+     *
+     * @param cards Mask of cards
+     * @param n Zero-based position among the set bits
+     * @return Card index
+     */
+    static int nth(long cards, int n) {
+        for (; n > 0; n--) {
+            cards &= cards - 1;
+        }
+        return Long.numberOfTrailingZeros(cards);
+    }
+}
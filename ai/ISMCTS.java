@@ -0,0 +1,284 @@
+package crazy8s.ai;
+
+import crazy8s.card.Cards;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Information set Monte Carlo tree search for heads-up Crazy 8s. Each
+ * iteration deals the unseen cards at random between the other player's hand
+ * and the deck, as allowed by the searching player's BeliefState, walks the
+ * tree using only the moves legal in that deal, and finishes the game with
+ * random playouts. Threads search separate trees from the same position and
+ * their root visit counts are added up.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class ISMCTS {
+
+    /**
+     * Move returned when the player has to draw or pass
+     */
+    public final static int DRAW = GameState.DRAW;
+
+    private final static double EXPLORATION = 0.7;
+
+    private final long millis;
+
+    private final int iterations;
+
+    private final int threads;
+
+    private final ExecutorService executor;
+
+    private final SplittableRandom random;
+
+    /**
+     * Constructor using the common fork/join pool
+     *
+     * @param millis Wall-clock budget per move in milliseconds, 0 for none
+     * @param iterations Iteration budget per move over all threads, 0 for none
+     * @param threads Number of trees searched in parallel
+     */
+    public ISMCTS(long millis, int iterations, int threads) {
+        this(millis, iterations, threads, ForkJoinPool.commonPool(), new SplittableRandom());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param millis Wall-clock budget per move in milliseconds, 0 for none
+     * @param iterations Iteration budget per move over all threads, 0 for none
+     * @param threads Number of trees searched in parallel
+     * @param executor Pool running all trees but the caller's own
+     * @param random Random source, split once per tree
+     */
+    public ISMCTS(long millis, int iterations, int threads, ExecutorService executor, SplittableRandom random) {
+        if (millis <= 0 && iterations <= 0) {
+            throw new IllegalArgumentException("search needs a time or iteration budget");
+        }
+        this.millis = millis;
+        this.iterations = iterations;
+        this.threads = Math.max(1, threads);
+        this.executor = executor;
+        this.random = random;
+    }
+
+    /**
+     * Gets the card of a move
+     *
+     * @param move Move returned by search()
+     * @return Card index, meaningless for DRAW
+     */
+    public static int cardOf(int move) {
+        return GameState.card(move);
+    }
+
+    /**
+     * Gets the suit declared with a move
+     *
+     * @param move Move returned by search()
+     * @return Declared suit if the card is an 8, otherwise 0
+     */
+    public static int suitOf(int move) {
+        return GameState.suit(move);
+    }
+
+    /**
+     * Searches for the best move of the player to move
+     *
+     * @param hand Mask of my cards
+     * @param belief What I know about the other cards, not changed during
+     * the search
+     * @return Move to make, DRAW if no card can be played
+     */
+    public synchronized int search(long hand, BeliefState belief) {
+        GameState root = new GameState(2);
+        root.hands[0] = hand;
+        root.top = belief.getTop();
+        root.suit = belief.getSuit();
+        root.pile = belief.getPile();
+        int[] moves = new int[GameState.MAX_MOVES];
+        int count = root.moves(moves);
+        if (count == 1) {
+            return moves[0] == GameState.PASS ? DRAW : moves[0];
+        }
+
+        long deadline = millis > 0 ? System.nanoTime() + millis * 1000000 : Long.MAX_VALUE;
+        int budget = iterations > 0 ? Math.max(1, iterations / threads) : Integer.MAX_VALUE;
+        ArrayList<Future<int[]>> futures = new ArrayList<>();
+        for (int index = 1; index < threads; index++) {
+            futures.add(executor.submit(new Tree(root, belief, deadline, budget, random.split())));
+        }
+        int[] visits = new Tree(root, belief, deadline, budget, random.split()).call();
+        for (Future<int[]> future : futures) {
+            try {
+                int[] more = future.get();
+                for (int move = 0; move < visits.length; move++) {
+                    visits[move] += more[move];
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("search failed", e.getCause());
+            }
+        }
+
+        int best = moves[0];
+        for (int index = 1; index < count; index++) {
+            if (visits[moves[index]] > visits[best]) {
+                best = moves[index];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * A node of the search tree, reached by one move
+     */
+    private static final class Node {
+
+        final int move;
+
+        final int player;
+
+        final Node parent;
+
+        final ArrayList<Node> children = new ArrayList<>();
+
+        int visits;
+
+        int available;
+
+        double reward;
+
+        Node(int move, int player, Node parent) {
+            this.move = move;
+            this.player = player;
+            this.parent = parent;
+        }
+
+        Node child(int move) {
+            for (Node child : children) {
+                if (child.move == move) {
+                    return child;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * One search tree, grown by a single thread
+     */
+    private static final class Tree implements Callable<int[]> {
+
+        private final GameState root;
+
+        private final BeliefState belief;
+
+        private final long unseen;
+
+        private final long deadline;
+
+        private final int budget;
+
+        private final SplittableRandom random;
+
+        private final GameState state = new GameState(2);
+
+        private final int[] moves = new int[GameState.MAX_MOVES];
+
+        private final int[] untried = new int[GameState.MAX_MOVES];
+
+        private final int[] cards = new int[Cards.COUNT];
+
+        Tree(GameState root, BeliefState belief, long deadline, int budget, SplittableRandom random) {
+            this.root = root;
+            this.belief = belief;
+            this.unseen = belief.unseen(root.hands[0]);
+            this.deadline = deadline;
+            this.budget = budget;
+            this.random = random;
+        }
+
+        @Override
+        public int[] call() {
+            Node top = new Node(0, 1, null);
+            for (int iteration = 0; iteration < budget; iteration++) {
+                if ((iteration & 15) == 0 && System.nanoTime() >= deadline) {
+                    break;
+                }
+                determinize();
+                Node node = select(top);
+                state.rollout(random);
+                for (; node != top; node = node.parent) {
+                    node.visits++;
+                    node.reward += state.reward(node.player);
+                }
+            }
+
+            int[] visits = new int[GameState.PASS + 1];
+            for (Node child : top.children) {
+                visits[child.move] = child.visits;
+            }
+            return visits;
+        }
+
+        /**
+         * Deals the unseen cards between the other hand and the deck
+         */
+        private void determinize() {
+            state.copyFrom(root);
+            long other = belief.sample(root.hands[0], random, cards);
+            state.hands[1] = other;
+            state.deck = unseen & ~other;
+        }
+
+        /**
+         * Walks down the tree along moves legal in the current deal, adding
+         * one new node, and applies the moves to the state
+         *
+         * @param node Root node
+         * @return Node added, or the last node reached if the game ended
+         */
+        private Node select(Node node) {
+            while (!state.isOver()) {
+                int count = state.moves(moves);
+                int untriedCount = 0;
+                Node best = null;
+                double bestValue = Double.NEGATIVE_INFINITY;
+                for (int index = 0; index < count; index++) {
+                    Node child = node.child(moves[index]);
+                    if (child == null) {
+                        untried[untriedCount++] = moves[index];
+                        continue;
+                    }
+                    child.available++;
+                    double value = child.reward / child.visits
+                            + EXPLORATION * Math.sqrt(Math.log(child.available) / child.visits);
+                    if (value > bestValue) {
+                        bestValue = value;
+                        best = child;
+                    }
+                }
+                if (untriedCount > 0) {
+                    int move = untried[random.nextInt(untriedCount)];
+                    Node child = new Node(move, state.turn, node);
+                    node.children.add(child);
+                    state.applyMove(move, random);
+                    return child;
+                }
+                state.applyMove(best.move, random);
+                node = best;
+            }
+            return node;
+        }
+    }
+}
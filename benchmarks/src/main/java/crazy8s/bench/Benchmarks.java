@@ -0,0 +1,36 @@
+package crazy8s.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler attached, so every result comes
+ * with its allocation rate. Takes the usual JMH command line options.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class Benchmarks {
+
+    /**
+     * Run the benchmarks
+     *
+     * @param args JMH command line options, such as a benchmark name filter
+     * @throws CommandLineOptionException If the options cannot be parsed
+     * @throws RunnerException If a benchmark fails
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(cmd);
+        if (cmd.getIncludes().isEmpty()) {
+            builder.include(Benchmarks.class.getPackage().getName());
+        }
+        Options options = builder.addProfiler(GCProfiler.class).build();
+        new Runner(options).run();
+    }
+}
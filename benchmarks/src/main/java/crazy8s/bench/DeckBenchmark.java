@@ -0,0 +1,125 @@
+package crazy8s.bench;
+
+import crazy8s.card.Card;
+import crazy8s.card.Deck;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks building, shuffling and drawing from a deck.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBenchmark {
+
+    /**
+     * Reshuffles timed by one call of drawReshuffle
+     */
+    private final static int CYCLES = 16;
+
+    private Deck deck;
+
+    private long seed;
+
+    /**
+     * Builds a fresh deck for each iteration
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        deck = new Deck(seed++);
+    }
+
+    /**
+     * Builds and shuffles a deck
+     *
+     * @return The new deck
+     */
+    @Benchmark
+    public Deck construct() {
+        return new Deck(seed++);
+    }
+
+    /**
+     * Shuffles a full deck
+     *
+     * @return The shuffled deck
+     */
+    @Benchmark
+    public Deck shuffle() {
+        deck.shuffle();
+        return deck;
+    }
+
+    /**
+     * Draws a card and discards it straight back. Once every 51 draws the deck
+     * is empty and the discard pile is reshuffled into it.
+     *
+     * @return The card drawn
+     */
+    @Benchmark
+    public Card drawAndDiscard() {
+        Card card = deck.draw();
+        deck.discard(card);
+        return card;
+    }
+
+    /**
+     * Draws and discards CYCLES times 51 cards, reported per 51. Each 51
+     * starts on an empty deck and so takes exactly one reshuffle, timed
+     * along with its draws rather than on its own, which would be too short
+     * to time.
+     *
+     * @param cycling Deck emptied before the first call
+     * @return The last card drawn
+     */
+    @Benchmark
+    @OperationsPerInvocation(CYCLES)
+    public Card drawReshuffle(Cycling cycling) {
+        Deck cards = cycling.deck;
+        Card card = null;
+        for (int draw = 0; draw < CYCLES * 51; draw++) {
+            card = cards.draw();
+            cards.discard(card);
+        }
+        return card;
+    }
+
+    /**
+     * A deck that goes round in cycles of 51 draws, each starting with a
+     * reshuffle
+     */
+    @State(Scope.Thread)
+    public static class Cycling {
+
+        private Deck deck;
+
+        /**
+         * Builds a deck and moves every card to the discard pile, so the
+         * next draw reshuffles
+         */
+        @Setup(Level.Iteration)
+        public void empty() {
+            deck = new Deck(0);
+            while (deck.size() > 0) {
+                deck.discard(deck.draw());
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package crazy8s.bench;
+
+import crazy8s.Game;
+import crazy8s.GameResult;
+import crazy8s.player.IPlayer;
+import crazy8s.player.Opponent;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks complete headless games between opponents at tables of two to
+ * eight. Turns played are counted too, so per-move speed can be compared
+ * across table sizes.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    @Param({"2", "4", "8"})
+    public int players;
+
+    private long seed;
+
+    /**
+     * Turns played, reported by JMH as a rate next to games per second
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Turns {
+
+        public long turns;
+
+        /**
+         * Starts every iteration from zero
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            turns = 0;
+        }
+    }
+
+    /**
+     * Plays one game from the deal to the end
+     *
+     * @param counter Turn counter
+     * @return Result of the game
+     */
+    @Benchmark
+    public GameResult play(Turns counter) {
+        IPlayer[] table = new IPlayer[players];
+        for (int seat = 0; seat < players; seat++) {
+            table[seat] = new Opponent();
+        }
+        GameResult result = new Game(seed++, table).play();
+        counter.turns += result.getTurns();
+        return result;
+    }
+}
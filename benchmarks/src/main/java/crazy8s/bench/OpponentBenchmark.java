@@ -0,0 +1,81 @@
+package crazy8s.bench;
+
+import crazy8s.card.Card;
+import crazy8s.card.Deck;
+import crazy8s.player.Opponent;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the opponent's decisions on hands dealt from shuffled decks.
+ * Cycles through many positions so branch prediction cannot learn one hand.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpponentBenchmark {
+
+    private final static int POSITIONS = 1024;
+
+    @Param({"8", "16"})
+    public int handSize;
+
+    private final Opponent[] opponents = new Opponent[POSITIONS];
+
+    private int next;
+
+    /**
+     * Deals one hand and one discard per position
+     */
+    @Setup
+    public void setUp() {
+        for (int index = 0; index < POSITIONS; index++) {
+            Deck deck = new Deck(index);
+            Opponent opponent = new Opponent();
+            for (int count = 0; count < handSize; count++) {
+                opponent.getHand().add(deck.draw());
+            }
+            Card discard = deck.draw();
+            deck.discard(discard);
+            opponent.played(opponent, discard);
+            opponents[index] = opponent;
+        }
+    }
+
+    /**
+     * Chooses a card to play or decides to draw
+     *
+     * @return Encoded command
+     */
+    @Benchmark
+    public int getCommand() {
+        next = (next + 1) & (POSITIONS - 1);
+        return opponents[next].getCommand();
+    }
+
+    /**
+     * Chooses the suit to declare after playing an 8
+     *
+     * @return Chosen suit
+     */
+    @Benchmark
+    public int chooseSuit() {
+        next = (next + 1) & (POSITIONS - 1);
+        return opponents[next].getSuit();
+    }
+}
@@ -1,11 +1,13 @@
 package crazy8s.card;
 
 /**
- * Represents a playing card.
+ * Represents a playing card. There is one immutable instance of each of the 52
+ * cards, shared by every deck, hand and thread; get them with of(). The suit
+ * declared with an 8 belongs to the table, not to the card.
  *
  * @author Liam Harwood and Juan Vasquez
  */
-public class Card implements ICard {
+public final class Card implements ICard {
 
     public final static int CLUBS = 1;
 
@@ -15,9 +17,29 @@ public class Card implements ICard {
 
     public final static int SPADES = 4;
 
-    int rank;
+    /**
+     * Every card, by index
+     */
+    private final static Card[] CARDS = new Card[Cards.COUNT];
 
-    int suit;
+    /**
+     * Names of every rank and suit, so that printing a card never builds a
+     * string
+     */
+    private final static String[] NAMES = new String[Cards.COUNT];
+
+    static {
+        for (int index = 0; index < Cards.COUNT; index++) {
+            CARDS[index] = new Card(Cards.rank(index), Cards.suit(index));
+            NAMES[index] = decodeRank(Cards.rank(index)) + " of " + decodeSuit(Cards.suit(index));
+        }
+    }
+
+    final int index;
+
+    final int rank;
+
+    final int suit;
 
     /**
      * Constructor
@@ -25,11 +47,47 @@ public class Card implements ICard {
      * @param rank Integer representing rank of card
      * @param suit Integer representing suit of card
      */
-    public Card(int rank, int suit) {
+    private Card(int rank, int suit) {
+        this.index = Cards.index(rank, suit);
         this.rank = rank;
         this.suit = suit;
     }
 
+    /**
+     * Gets a card
+     *
+     * @param rank Integer representing rank of card
+     * @param suit Integer representing suit of card
+     * @return The one instance of the card
+     */
+    public static Card of(int rank, int suit) {
+        if (rank < 1 || rank > 13 || suit < CLUBS || suit > SPADES) {
+            throw new IllegalArgumentException("no card of rank " + rank + " and suit " + suit);
+        }
+        return CARDS[Cards.index(rank, suit)];
+    }
+
+    /**
+     * Gets a card by its index in the compact encoding
+     *
+     * @param index Integer from 0 to 51
+     * @return The one instance of the card
+     * @see Cards
+     */
+    public static Card of(int index) {
+        return CARDS[index];
+    }
+
+    /**
+     * Gets the card's index in the compact encoding
+     *
+     * @return index Integer from 0 to 51
+     * @see Cards
+     */
+    public int getIndex() {
+        return index;
+    }
+
     /**
      * Gets the rank of the card
      *
@@ -51,22 +109,27 @@ public class Card implements ICard {
     }
 
     /**
-     * Sets the suit of the card
+     * Converts me to a string
      *
-     * @param suit Suit to be set to
+     * @return String saying rank and suit of card
      */
-    public void setSuit(int suit) {
-        this.suit = suit;
+    @Override
+    public String toString() {
+        return name(rank, suit);
     }
 
     /**
-     * Converts me to a string
+     * Gets the name of a rank and suit, such as "Queen of Hearts"
      *
-     * @return String saying rank and suit of card
+     * @param rank Integer representing rank
+     * @param suit Integer representing suit
+     * @return Name of the card
      */
-    @Override
-    public String toString() {
-        return decodeRank() + " of " + decodeSuit();
+    public static String name(int rank, int suit) {
+        if (rank >= 1 && rank <= 13 && suit >= CLUBS && suit <= SPADES) {
+            return NAMES[Cards.index(rank, suit)];
+        }
+        return decodeRank(rank) + " of " + decodeSuit(suit);
     }
 
     /**
@@ -75,6 +138,16 @@ public class Card implements ICard {
      * @return String of the card's rank
      */
     public String decodeRank() {
+        return decodeRank(rank);
+    }
+
+    /**
+     * Decodes integer values representing rank and converts it to a string
+     *
+     * @param rank Integer representing rank
+     * @return String of the rank
+     */
+    private static String decodeRank(int rank) {
         if (rank == 1) {
             return "Ace";
         }
@@ -104,6 +177,16 @@ public class Card implements ICard {
      * @return String of the card's suit
      */
     public String decodeSuit() {
+        return decodeSuit(suit);
+    }
+
+    /**
+     * Decodes integer values representing suit and converts it to a string
+     *
+     * @param suit Integer representing suit
+     * @return String of the suit
+     */
+    private static String decodeSuit(int suit) {
         if (suit == CLUBS) {
             return "Clubs";
         }
@@ -129,13 +212,13 @@ public class Card implements ICard {
      * @param args Command line arguments
      */
     public static void main(String[] args) {
-        Card card = new Card(2, 1);
+        Card card = Card.of(2, 1);
         System.out.println(card);
 
-        Card card2 = new Card(11, 2);
+        Card card2 = Card.of(11, 2);
         System.out.println(card2);
 
-        Card card3 = new Card(1, 4);
+        Card card3 = Card.of(1, 4);
         System.out.println(card3);
 
     }
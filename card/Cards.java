@@ -0,0 +1,112 @@
+package crazy8s.card;
+
+/**
+ * Compact card encoding. A card is an index from 0 to 51, ordered by suit and
+ * then rank, and a set of cards is a long with one bit per index. Rank and
+ * suit masks are precomputed so hand searches become a few AND operations.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public final class Cards {
+
+    public final static int COUNT = 52;
+
+    /**
+     * Mask with every card set
+     */
+    public final static long ALL = (1L << COUNT) - 1;
+
+    /**
+     * Masks of all cards of each rank, indexed 1 to 13 like Card ranks
+     */
+    public final static long[] RANK_MASKS = new long[14];
+
+    /**
+     * Masks of all cards of each suit, indexed 1 to 4 like Card suits
+     */
+    public final static long[] SUIT_MASKS = new long[5];
+
+    /**
+     * Mask of the four 8s
+     */
+    public final static long EIGHTS;
+
+    private final static byte[] RANKS = new byte[COUNT];
+
+    private final static byte[] SUITS = new byte[COUNT];
+
+    private final static byte[] POINTS = new byte[COUNT];
+
+    static {
+        for (int suit = Card.CLUBS; suit <= Card.SPADES; suit++) {
+            for (int rank = 1; rank <= 13; rank++) {
+                int index = index(rank, suit);
+                RANKS[index] = (byte) rank;
+                SUITS[index] = (byte) suit;
+                POINTS[index] = (byte) (rank == 8 ? 50 : Math.min(rank, 10));
+                RANK_MASKS[rank] |= bit(index);
+                SUIT_MASKS[suit] |= bit(index);
+            }
+        }
+        EIGHTS = RANK_MASKS[8];
+    }
+
+    private Cards() {
+    }
+
+    /**
+     * Encodes a rank and suit as a card index
+     *
+     * @param rank Integer representing rank of card
+     * @param suit Integer representing suit of card
+     * @return Card index from 0 to 51
+     */
+    public static int index(int rank, int suit) {
+        return (suit - 1) * 13 + (rank - 1);
+    }
+
+    /**
+     * Gets the rank of a card index
+     *
+     * @param index Card index
+     * @return Integer representing rank of card
+     */
+    public static int rank(int index) {
+        return RANKS[index];
+    }
+
+    /**
+     * Gets the suit of a card index
+     *
+     * @param index Card index
+     * @return Integer representing suit of card
+     */
+    public static int suit(int index) {
+        return SUITS[index];
+    }
+
+    /**
+     * Gets the mask of a single card
+     *
+     * @param index Card index
+     * @return Mask with only that card set
+     */
+    public static long bit(int index) {
+        return 1L << index;
+    }
+
+    /**
+     * Adds up the points of a set of cards as scored at the end of a game: 50
+     * for an 8, 10 for a face card, otherwise the rank
+     *
+     * @param cards Mask of cards
+     * @return Sum of the card values
+     */
+    public static int points(long cards) {
+        int points = 0;
+        for (; cards != 0; cards &= cards - 1) {
+            points += POINTS[Long.numberOfTrailingZeros(cards)];
+        }
+        return points;
+    }
+}
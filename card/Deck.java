@@ -1,90 +1,238 @@
 package crazy8s.card;
 
-import java.util.ArrayList;
-import java.util.Random;
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
- * Represents a card deck.
+ * Represents a card deck, or a shoe of several decks shuffled together for
+ * large tables. The deck and the discard pile are stacks of card indexes in
+ * fixed arrays, so drawing, discarding and reshuffling the discard pile never
+ * shift elements or allocate. Copies of a card in a shoe are the same shared
+ * Card. The suit declared with an 8 is kept here, next to the discard pile.
  *
  * @author Liam Harwood and Juan Vasquez
  */
 public final class Deck {
 
-    int rank;
+    /**
+     * Most decks in a shoe. A hand counts at most three copies of a card.
+     */
+    public final static int MAX_DECKS = 3;
 
     int suit;
 
-    Random ran = new Random();
+    final RandomGenerator ran;
+
+    final int decks;
+
+    final int[] cards;
 
-    public ArrayList<Card> cards = new ArrayList<>();
+    int top;
 
-    public ArrayList<Card> discards = new ArrayList<>();
+    final int[] discards;
+
+    int discardTop;
+
+    int reshuffles;
 
     /**
      * Constructor
      */
     public Deck() {
-        for (int r = 1; r <= 13; r++) {
-            for (int s = 1; s <= 4; s++) {
-                Card card = new Card(r, s);
-                cards.add(card);
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructor for a reproducible deck
+     *
+     * @param seed Seed of the shuffles
+     */
+    public Deck(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param ran Random source for shuffles, used only by this deck
+     */
+    public Deck(RandomGenerator ran) {
+        this(ran, 1);
+    }
+
+    /**
+     * Constructor for a shoe
+     *
+     * @param ran Random source for shuffles, used only by this deck
+     * @param decks Number of decks from 1 to MAX_DECKS
+     */
+    public Deck(RandomGenerator ran, int decks) {
+        if (decks < 1 || decks > MAX_DECKS) {
+            throw new IllegalArgumentException("a shoe holds 1 to " + MAX_DECKS + " decks");
+        }
+        this.ran = ran;
+        this.decks = decks;
+        cards = new int[Cards.COUNT * decks];
+        discards = new int[cards.length];
+        reset();
+    }
+
+    /**
+     * Puts every card back in the deck, empties the discard pile and
+     * shuffles
+     */
+    public void reset() {
+        top = 0;
+        for (int copy = 0; copy < decks; copy++) {
+            for (int r = 1; r <= 13; r++) {
+                for (int s = 1; s <= 4; s++) {
+                    cards[top++] = Cards.index(r, s);
 
+                }
             }
         }
+        discardTop = 0;
+        reshuffles = 0;
+        suit = 0;
 
         this.shuffle();
     }
 
     /**
-     * Draws a card from the deck
+     * Draws a card from the deck. When the deck is empty, every discard but
+     * the top one is shuffled back into the deck first.
      *
      * @return card Card that is drawn
      */
     public Card draw() {
-        if (!(cards.isEmpty())) {
-            Card card = cards.remove(0);
-            return card;
+        if (top == 0) {
+            top = discardTop - 1;
+            System.arraycopy(discards, 0, cards, 0, top);
+            discards[0] = discards[discardTop - 1];
+            discardTop = 1;
+            reshuffles++;
+            shuffle();
         }
-        for (int index = discards.size() - 1; index > 0; index--) {
-            Card card = discards.remove(index);
-            cards.add(card);
-        }
-        shuffle();
-        Card card = cards.remove(0);
-        return card;
+        return Card.of(cards[--top]);
+    }
+
+    /**
+     * Checks whether a card can still be drawn, either from the deck or by
+     * reshuffling the discard pile under its top card
+     *
+     * @return true if draw() will return a card
+     */
+    public boolean canDraw() {
+        return top > 0 || discardTop > 1;
+    }
+
+    /**
+     * Gets the number of cards left in the deck
+     *
+     * @return top Number of cards in the deck
+     */
+    public int size() {
+        return top;
+    }
+
+    /**
+     * Gets the number of cards in the discard pile
+     *
+     * @return discardTop Number of cards in the discard pile
+     */
+    public int discardSize() {
+        return discardTop;
     }
 
     /**
-     * Puts a card on top of the discard pile
+     * Puts a card on top of the discard pile. Its own suit is the suit to
+     * follow until setDiscardSuit() declares another.
      *
      * @param card Card to be discarded
      */
     public void discard(Card card) {
-        discards.add(0, card);
-        rank = card.rank;
+        discards[discardTop++] = card.index;
         suit = card.suit;
     }
 
+    /**
+     * Gets the number of times the discard pile was shuffled back into the
+     * deck
+     *
+     * @return reshuffles Number of reshuffles
+     */
+    public int getReshuffles() {
+        return reshuffles;
+    }
+
+    /**
+     * Gets the number of decks in the shoe
+     *
+     * @return decks Number of decks
+     */
+    public int getDecks() {
+        return decks;
+    }
+
+    /**
+     * Gets the discard card
+     *
+     * @return Card on top of the discard pile
+     */
+    public Card getDiscard() {
+        return Card.of(discards[discardTop - 1]);
+    }
+
+    /**
+     * Gets the cards left in the deck. Copies of a card in a shoe share a
+     * bit.
+     *
+     * @return Mask of the cards in the deck
+     */
+    public long getDeckMask() {
+        long mask = 0;
+        for (int index = 0; index < top; index++) {
+            mask |= Cards.bit(cards[index]);
+        }
+        return mask;
+    }
+
+    /**
+     * Gets the discard pile under the discard card. Copies of a card in a
+     * shoe share a bit.
+     *
+     * @return Mask of the cards under the top of the discard pile
+     */
+    public long getPileMask() {
+        long mask = 0;
+        for (int index = 0; index < discardTop - 1; index++) {
+            mask |= Cards.bit(discards[index]);
+        }
+        return mask;
+    }
+
     /**
      * Gets the rank of the discard card
      *
      * @return rank Integer representing discard card rank
      */
     public int getDiscardRank() {
-        return rank;
+        return Cards.rank(discards[discardTop - 1]);
     }
 
     /**
-     * Gets the suit of the discard card
+     * Gets the suit to follow: the suit of the discard card, or the suit
+     * declared with it if it is an 8
      *
-     * @return suit Integer representing discard card suit
+     * @return suit Integer representing the suit to follow
      */
     public int getDiscardSuit() {
         return suit;
     }
 
     /**
-     * Sets the suit of the discard card
+     * Declares the suit to follow after an 8
      *
      * @param suit Suit to set it to
      */
@@ -93,19 +241,107 @@ public final class Deck {
     }
 
     /**
-     * Shuffles the deck
+     * Writes the deck in order, the discard pile and the suit to follow
+     *
+     * @param buffer Buffer with room for 9 bytes and one per card
      */
-    public void shuffle() {
-        for (int index = 0; index < cards.size(); index++) {
-            Card card1 = cards.get(index);
+    public void save(ByteBuffer buffer) {
+        buffer.put((byte) suit);
+        buffer.putShort((short) top);
+        for (int index = 0; index < top; index++) {
+            buffer.put((byte) cards[index]);
+        }
+        buffer.putShort((short) discardTop);
+        for (int index = 0; index < discardTop; index++) {
+            buffer.put((byte) discards[index]);
+        }
+        buffer.putInt(reshuffles);
+    }
+
+    /**
+     * Reads a deck written by save() from a shoe of as many decks. Later
+     * shuffles still use my random source.
+     *
+     * @param buffer Buffer positioned where save() started writing
+     * @throws IllegalArgumentException If the deck does not fit in my shoe
+     * or holds more copies of a card than the shoe has
+     */
+    public void restore(ByteBuffer buffer) {
+        int suit = buffer.get();
+        int top = buffer.getShort();
+        if (top < 0 || top > cards.length) {
+            throw new IllegalArgumentException("saved deck holds " + top + " cards");
+        }
+        for (int index = 0; index < top; index++) {
+            cards[index] = card(buffer.get());
+        }
+        int discardTop = buffer.getShort();
+        if (discardTop < 1 || top + discardTop > cards.length) {
+            throw new IllegalArgumentException("saved discard pile holds " + discardTop + " cards");
+        }
+        for (int index = 0; index < discardTop; index++) {
+            discards[index] = card(buffer.get());
+        }
+        int[] copies = new int[Cards.COUNT];
+        for (int index = 0; index < top; index++) {
+            copies[cards[index]]++;
+        }
+        for (int index = 0; index < discardTop; index++) {
+            copies[discards[index]]++;
+        }
+        for (int index = 0; index < Cards.COUNT; index++) {
+            if (copies[index] > decks) {
+                throw new IllegalArgumentException("saved deck holds " + copies[index] + " copies of card " + index);
+            }
+        }
+        this.suit = suit;
+        this.top = top;
+        this.discardTop = discardTop;
+        reshuffles = buffer.getInt();
+    }
+
+    /**
+     * Adds the copies of each card in the deck and the discard pile to a
+     * count
+     *
+     * @param copies Copies counted so far, by card index
+     */
+    public void tally(int[] copies) {
+        for (int index = 0; index < top; index++) {
+            copies[cards[index]]++;
+        }
+        for (int index = 0; index < discardTop; index++) {
+            copies[discards[index]]++;
+        }
+    }
 
-            int lottery = ran.nextInt(cards.size());
+    /**
+     * Checks a card index read by restore()
+     *
+     * @param index Card index
+     * @return The index
+     * @throws IllegalArgumentException If it is not a card
+     */
+    private static int card(int index) {
+        if (index < 0 || index >= Cards.COUNT) {
+            throw new IllegalArgumentException("saved card " + index + " does not exist");
+        }
+        return index;
+    }
+
+    /**
+     * Shuffles the deck with a Fisher-Yates shuffle, so every order is
+     * equally likely
+     */
+    public void shuffle() {
+        for (int index = top - 1; index > 0; index--) {
+            int card1 = cards[index];
 
-            Card card2 = cards.get(lottery);
+            int lottery = ran.nextInt(index + 1);
 
-            cards.set(index, card2);
+            cards[index] = cards[lottery];
 
-            cards.set(lottery, card1);
+            cards[lottery] = card1;
         }
     }
 
@@ -117,8 +353,8 @@ public final class Deck {
     @Override
     public String toString() {
         String s = "";
-        for (int index = 0; index <= 10; ++index) {
-            Card card = cards.get(index);
+        for (int index = 0; index <= 10 && index < top; ++index) {
+            Card card = Card.of(cards[top - 1 - index]);
 
             String t = card + "\n";
 
@@ -135,6 +371,6 @@ public final class Deck {
     public static void main(String[] args) {
         Deck deck = new Deck();
         System.out.println(deck);
-        System.out.println(deck.discards);
+        System.out.println("Discards: " + deck.discardSize());
     }
 }
@@ -0,0 +1,223 @@
+package crazy8s.card;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * A player's hand. Keeps the list order players and commands index into, and
+ * alongside it a mask of the cards held so searches do not scan the list.
+ * Games dealt from a shoe of several decks can put copies of a card in one
+ * hand, so each card has a two bit count held across two masks, enough for
+ * the copies of Deck.MAX_DECKS decks.
+ *
+ * Changing the list keeps the counts: single cards update them as they go,
+ * including through iterators, which call the methods here, and bulk changes
+ * count the hand again. Sub lists are read only, since ArrayList changes them
+ * behind the hand's back.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class Hand extends ArrayList<Card> {
+
+    private static final long serialVersionUID = 1L;
+
+    private long ones;
+
+    private long twos;
+
+    /**
+     * Gets the mask of cards in the hand
+     *
+     * @return One bit set per card index held at least once
+     */
+    public long getMask() {
+        return ones | twos;
+    }
+
+    /**
+     * Gets the mask of any list of cards
+     *
+     * @param cards Cards, usually a Hand
+     * @return One bit set per card index in the list
+     */
+    public static long maskOf(List<Card> cards) {
+        if (cards instanceof Hand) {
+            return ((Hand) cards).getMask();
+        }
+        long mask = 0;
+        for (Card card : cards) {
+            mask |= Cards.bit(card.getIndex());
+        }
+        return mask;
+    }
+
+    /**
+     * Counts the copies of a card in the hand
+     *
+     * @param index Card index
+     * @return Number of copies held
+     */
+    public int count(int index) {
+        return (int) (ones >>> index & 1) + 2 * (int) (twos >>> index & 1);
+    }
+
+    /**
+     * Finds where a card sits in the hand
+     *
+     * @param index Card index to look for
+     * @return Position in the hand, -1 if the card is not held
+     */
+    public int indexOf(int index) {
+        if ((getMask() & Cards.bit(index)) == 0) {
+            return -1;
+        }
+        for (int position = 0; position < size(); position++) {
+            if (get(position).index == index) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first card in the hand out of a set of cards
+     *
+     * @param cards Mask of cards to look for
+     * @return Position in the hand, -1 if none of the cards are held
+     */
+    public int search(long cards) {
+        long found = getMask() & cards;
+        if (found == 0) {
+            return -1;
+        }
+        return indexOf(Long.numberOfTrailingZeros(found));
+    }
+
+    @Override
+    public boolean add(Card card) {
+        count(card.index, 1);
+        return super.add(card);
+    }
+
+    @Override
+    public void add(int position, Card card) {
+        count(card.index, 1);
+        super.add(position, card);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Card> cards) {
+        for (Card card : cards) {
+            count(card.index, 1);
+        }
+        return super.addAll(cards);
+    }
+
+    @Override
+    public boolean addAll(int position, Collection<? extends Card> cards) {
+        for (Card card : cards) {
+            count(card.index, 1);
+        }
+        return super.addAll(position, cards);
+    }
+
+    @Override
+    public Card remove(int position) {
+        Card card = super.remove(position);
+        count(card.index, -1);
+        return card;
+    }
+
+    @Override
+    public boolean remove(Object card) {
+        if (super.remove(card)) {
+            count(((Card) card).index, -1);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Card set(int position, Card card) {
+        Card old = super.set(position, card);
+        count(old.index, -1);
+        count(card.index, 1);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        ones = 0;
+        twos = 0;
+        super.clear();
+    }
+
+    @Override
+    protected void removeRange(int from, int to) {
+        for (int position = from; position < to; position++) {
+            count(get(position).index, -1);
+        }
+        super.removeRange(from, to);
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super Card> filter) {
+        return recount(super.removeIf(filter));
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> cards) {
+        return recount(super.removeAll(cards));
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> cards) {
+        return recount(super.retainAll(cards));
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<Card> operator) {
+        super.replaceAll(operator);
+        recount(true);
+    }
+
+    @Override
+    public List<Card> subList(int from, int to) {
+        return Collections.unmodifiableList(super.subList(from, to));
+    }
+
+    /**
+     * Counts every card in the hand again after a bulk change
+     *
+     * @param changed Whether the list changed
+     * @return changed
+     */
+    private boolean recount(boolean changed) {
+        if (changed) {
+            ones = 0;
+            twos = 0;
+            for (int position = 0; position < size(); position++) {
+                count(get(position).index, 1);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Adds one copy of a card to the counts, or takes one away
+     *
+     * @param index Card index
+     * @param change 1 to add a copy, -1 to take one away
+     */
+    private void count(int index, int change) {
+        long bit = Cards.bit(index);
+        // Two bit counters: the carry or borrow moves into the twos
+        long carry = change > 0 ? ones & bit : ~ones & bit;
+        ones ^= bit;
+        twos ^= carry;
+    }
+}
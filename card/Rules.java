@@ -0,0 +1,123 @@
+package crazy8s.card;
+
+/**
+ * The rules of Crazy 8s in one place. Any 8 may be played; otherwise the
+ * card must match the rank of the discard or the suit to follow, which is
+ * the declared suit after an 8. A player may draw only when they have no
+ * legal play. Every check is a lookup in tables built once, so it takes the
+ * same constant time for any hand.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public final class Rules {
+
+    /**
+     * Cards that may be played, by discard rank and suit to follow
+     */
+    private final static long[] LEGAL = new long[14 * 5];
+
+    /**
+     * Cards other than 8s of each rank
+     */
+    private final static long[] RANK_MATCHES = new long[14];
+
+    /**
+     * Cards other than 8s of each suit
+     */
+    private final static long[] SUIT_MATCHES = new long[5];
+
+    static {
+        for (int rank = 1; rank <= 13; rank++) {
+            RANK_MATCHES[rank] = Cards.RANK_MASKS[rank] & ~Cards.EIGHTS;
+            for (int suit = Card.CLUBS; suit <= Card.SPADES; suit++) {
+                LEGAL[rank * 5 + suit] = Cards.RANK_MASKS[rank] | Cards.SUIT_MASKS[suit] | Cards.EIGHTS;
+            }
+        }
+        for (int suit = Card.CLUBS; suit <= Card.SPADES; suit++) {
+            SUIT_MATCHES[suit] = Cards.SUIT_MASKS[suit] & ~Cards.EIGHTS;
+        }
+    }
+
+    /**
+     * Not to be instantiated
+     */
+    private Rules() {
+    }
+
+    /**
+     * Gets the cards that may be played on a discard
+     *
+     * @param rank Rank of the discard card
+     * @param suit Suit to follow, the declared suit if the discard is an 8
+     * @return Mask of playable cards
+     */
+    public static long legal(int rank, int suit) {
+        return LEGAL[rank * 5 + suit];
+    }
+
+    /**
+     * Gets the legal plays in a hand
+     *
+     * @param rank Rank of the discard card
+     * @param suit Suit to follow
+     * @param hand Mask of cards in hand
+     * @return Mask of cards in hand that may be played
+     */
+    public static long legalMoves(int rank, int suit, long hand) {
+        return hand & LEGAL[rank * 5 + suit];
+    }
+
+    /**
+     * Checks whether a hand has a legal play
+     *
+     * @param rank Rank of the discard card
+     * @param suit Suit to follow
+     * @param hand Mask of cards in hand
+     * @return true if a card may be played, false if the player must draw
+     */
+    public static boolean canPlay(int rank, int suit, long hand) {
+        return (hand & LEGAL[rank * 5 + suit]) != 0;
+    }
+
+    /**
+     * Checks whether a card may be played
+     *
+     * @param rank Rank of the discard card
+     * @param suit Suit to follow
+     * @param card Card index
+     * @return true if the card may be played
+     */
+    public static boolean isLegal(int rank, int suit, int card) {
+        return (LEGAL[rank * 5 + suit] & Cards.bit(card)) != 0;
+    }
+
+    /**
+     * Checks whether a suit may be declared with an 8
+     *
+     * @param suit Encoded suit
+     * @return true for clubs, diamonds, hearts and spades
+     */
+    public static boolean isSuit(int suit) {
+        return suit >= Card.CLUBS && suit <= Card.SPADES;
+    }
+
+    /**
+     * Gets the cards other than 8s that match a rank
+     *
+     * @param rank Rank of the discard card
+     * @return Mask of cards
+     */
+    public static long rankMatches(int rank) {
+        return RANK_MATCHES[rank];
+    }
+
+    /**
+     * Gets the cards other than 8s that follow a suit
+     *
+     * @param suit Suit to follow
+     * @return Mask of cards
+     */
+    public static long suitMatches(int suit) {
+        return SUIT_MATCHES[suit];
+    }
+}
@@ -0,0 +1,189 @@
+package crazy8s.log;
+
+import crazy8s.Game;
+import crazy8s.player.IPlayer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Keeps the latest save of many games in one memory-mapped file, a fixed
+ * slot per game. A checkpoint copies the game into the mapping, so a table
+ * can be saved after every move for a few hundred bytes of memory writes;
+ * the operating system writes the pages out and they outlive the process.
+ *
+ * Each slot has two halves written in turn, each holding a sequence number,
+ * the length of the save and the save from Game.save(). The half with the
+ * higher sequence number is the latest, so a process killed while saving
+ * still leaves the previous checkpoint whole. A slot is saved by one thread
+ * at a time; acquire() and release() hand slots out.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class Checkpoints implements Closeable {
+
+    /**
+     * Bytes in each half of a slot
+     */
+    private final static int HALF_SIZE = 256;
+
+    /**
+     * Bytes in front of each save: sequence number and length
+     */
+    private final static int HEADER_SIZE = 6;
+
+    /**
+     * Bytes in each slot
+     */
+    public final static int SLOT_SIZE = 2 * HALF_SIZE;
+
+    static {
+        if (HEADER_SIZE + Game.MAX_SAVE_SIZE > HALF_SIZE) {
+            throw new AssertionError("a save does not fit in a checkpoint slot");
+        }
+    }
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private final ByteBuffer[] halves;
+
+    private final int[] free;
+
+    private int freeCount;
+
+    private final int[] saved;
+
+    /**
+     * Constructor, keeping the checkpoints in the file if it exists
+     *
+     * @param path File to map
+     * @param slots Number of games that can be saved at once
+     * @throws IOException If the file cannot be opened or mapped
+     */
+    public Checkpoints(Path path, int slots) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) slots * SLOT_SIZE);
+        halves = new ByteBuffer[2 * slots];
+        for (int index = 0; index < halves.length; index++) {
+            halves[index] = buffer.slice(index * HALF_SIZE, HALF_SIZE);
+        }
+        free = new int[slots];
+        int savedCount = 0;
+        for (int slot = slots - 1; slot >= 0; slot--) {
+            if (latest(slot) == -1) {
+                free[freeCount++] = slot;
+            } else {
+                savedCount++;
+            }
+        }
+        saved = new int[savedCount];
+        for (int slot = 0, index = 0; index < savedCount; slot++) {
+            if (latest(slot) != -1) {
+                saved[index++] = slot;
+            }
+        }
+    }
+
+    /**
+     * Gets the slots that held a game when the file was opened. They are
+     * not handed out until released.
+     *
+     * @return Slot numbers, in order
+     */
+    public int[] getSaved() {
+        return saved.clone();
+    }
+
+    /**
+     * Hands out an empty slot
+     *
+     * @return Slot number, -1 if every slot is in use
+     */
+    public synchronized int acquire() {
+        return freeCount == 0 ? -1 : free[--freeCount];
+    }
+
+    /**
+     * Empties a slot and takes it back
+     *
+     * @param slot Slot from acquire() or getSaved()
+     */
+    public synchronized void release(int slot) {
+        halves[2 * slot].putShort(4, (short) 0);
+        halves[2 * slot + 1].putShort(4, (short) 0);
+        free[freeCount++] = slot;
+    }
+
+    /**
+     * Saves a game over the older half of its slot. Does not allocate.
+     *
+     * @param slot Slot from acquire()
+     * @param game Game between moves
+     */
+    public void save(int slot, Game game) {
+        ByteBuffer first = halves[2 * slot];
+        ByteBuffer second = halves[2 * slot + 1];
+        int firstSequence = first.getInt(0);
+        int secondSequence = second.getInt(0);
+        ByteBuffer half = firstSequence - secondSequence > 0 ? second : first;
+        half.clear().position(HEADER_SIZE);
+        game.save(half);
+        half.putShort(4, (short) (half.position() - HEADER_SIZE));
+        half.putInt(0, Math.max(firstSequence, secondSequence) + 1);
+    }
+
+    /**
+     * Brings back the game saved in a slot
+     *
+     * @param slot Slot holding a game
+     * @param game Game to restore into
+     * @param seats Players in the order they had when the game was saved
+     * @return true if the slot held a game
+     * @see Game#restore(ByteBuffer, IPlayer...)
+     */
+    public boolean load(int slot, Game game, IPlayer... seats) {
+        int half = latest(slot);
+        if (half == -1) {
+            return false;
+        }
+        ByteBuffer save = halves[half].duplicate();
+        save.limit(HEADER_SIZE + save.getShort(4)).position(HEADER_SIZE);
+        game.restore(save, seats);
+        return true;
+    }
+
+    /**
+     * Finds the half of a slot holding its latest save
+     *
+     * @param slot Slot number
+     * @return Index of the half in halves, -1 if the slot is empty
+     */
+    private int latest(int slot) {
+        ByteBuffer first = halves[2 * slot];
+        ByteBuffer second = halves[2 * slot + 1];
+        boolean firstSaved = first.getShort(4) != 0;
+        boolean secondSaved = second.getShort(4) != 0;
+        if (firstSaved && (!secondSaved || first.getInt(0) - second.getInt(0) > 0)) {
+            return 2 * slot;
+        }
+        return secondSaved ? 2 * slot + 1 : -1;
+    }
+
+    /**
+     * Writes the checkpoints out and closes the file
+     *
+     * @throws IOException If the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
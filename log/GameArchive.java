@@ -0,0 +1,368 @@
+package crazy8s.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a GameLog file through a memory mapping. Opening it scans the file
+ * once to index where every game starts and to keep a snapshot of the table
+ * every few turns, so seek() only replays the events since the nearest
+ * snapshot. A Cursor walks through the events without allocating.
+ *
+ * Snapshots hold the order of the deck and of the discard pile as well. The
+ * deck order is read ahead from the draws that follow, since every card
+ * leaves the deck in a DRAW event. A file that ends part way through an
+ * event, as a log still being written can, is read up to its last whole
+ * event.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class GameArchive implements Closeable {
+
+    private final static int STRIDE = ReplayState.MAX_SEATS;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    private final int interval;
+
+    private int games;
+
+    private int[] gameOffsets = new int[1024];
+
+    private int[] firstSnapshots = new int[1024];
+
+    private int snapshots;
+
+    private int[] snapshotOffsets = new int[1024];
+
+    private int[] snapshotTurns = new int[1024];
+
+    private long[] snapshotHands = new long[1024 * STRIDE];
+
+    private long[] snapshotPiles = new long[1024];
+
+    private int[] snapshotTops = new int[1024];
+
+    private int[] snapshotCounts = new int[1024];
+
+    private int[] snapshotOrders = new int[1024];
+
+    private byte[] orders = new byte[1024 * 32];
+
+    private int ordersSize;
+
+    private int end;
+
+    /**
+     * Constructor
+     *
+     * @param path Log file written by GameLog
+     * @param interval Number of turns between snapshots, at least 1
+     * @throws IOException If the file cannot be read or is over 2 GB
+     * @throws IllegalArgumentException If interval is less than 1
+     */
+    public GameArchive(Path path, int interval) throws IOException {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("snapshot interval must be positive");
+        }
+        this.interval = interval;
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        if (channel.size() > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException(path + " is too large to map, split the log");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        end = buffer.limit();
+        index();
+    }
+
+    /**
+     * Gets the number of games in the archive
+     *
+     * @return games Number of games
+     */
+    public int getGames() {
+        return games;
+    }
+
+    /**
+     * Checks whether the file ends part way through an event. The partial
+     * event is left out.
+     *
+     * @return Whether bytes follow the last whole event
+     */
+    public boolean isTruncated() {
+        return end < buffer.limit();
+    }
+
+    /**
+     * Creates a cursor over every event in the archive
+     *
+     * @return Cursor before the first event
+     */
+    public Cursor cursor() {
+        return new Cursor(0, end);
+    }
+
+    /**
+     * Creates a cursor over the events of one game
+     *
+     * @param game Number of the game, from 0
+     * @return Cursor before the game's START event
+     */
+    public Cursor cursor(int game) {
+        return new Cursor(gameOffsets[game], end(game));
+    }
+
+    /**
+     * Rebuilds the table of a game as it stood before a card was played
+     *
+     * @param game Number of the game, from 0
+     * @param turn Number of cards played so far; the whole game if larger
+     * @param state State to fill in
+     */
+    public void seek(int game, int turn, ReplayState state) {
+        int last = game + 1 < games ? firstSnapshots[game + 1] : snapshots;
+        int snapshot = -1;
+        for (int index = firstSnapshots[game]; index < last && snapshotTurns[index] <= turn; index++) {
+            snapshot = index;
+        }
+
+        Cursor cursor;
+        if (snapshot == -1) {
+            state.clear();
+            cursor = cursor(game);
+        } else {
+            restore(snapshot, state);
+            cursor = new Cursor(snapshotOffsets[snapshot], end(game));
+        }
+        int offset = end(game);
+        while (cursor.next()) {
+            if (cursor.getType() == GameLog.PLAY && state.turn == turn) {
+                offset = cursor.offset;
+                break;
+            }
+            state.apply(cursor.getType(), cursor.getSeat(), cursor.getArgument());
+        }
+        if (state.drawn == state.known) {
+            order(offset, state);
+        }
+    }
+
+    /**
+     * Closes the file. Cursors must not be used afterwards.
+     *
+     * @throws IOException If the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Scans the file for game starts and takes the snapshots
+     */
+    private void index() {
+        ReplayState state = new ReplayState();
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            int type = cursor.getType();
+            if (type == GameLog.START) {
+                gameOffsets = grow(gameOffsets, games);
+                firstSnapshots = grow(firstSnapshots, games);
+                gameOffsets[games] = cursor.offset;
+                firstSnapshots[games] = snapshots;
+                games++;
+            } else if (type == GameLog.PLAY && state.turn > 0 && state.turn % interval == 0) {
+                if (state.drawn == state.known) {
+                    order(cursor.offset, state);
+                }
+                snapshot(cursor.offset, state);
+            }
+            state.apply(type, cursor.getSeat(), cursor.getArgument());
+        }
+        end = cursor.position;
+    }
+
+    /**
+     * Reads the order of the deck from the draws after an event. Cards come
+     * off the top, so the next cards drawn, up to the number in the deck,
+     * are its order; a reshuffle can only follow them.
+     *
+     * @param offset Position of the event
+     * @param state Table as it stands before the event
+     */
+    private void order(int offset, ReplayState state) {
+        int count = Long.bitCount(state.getDeck());
+        state.drawn = 0;
+        state.known = 0;
+        Cursor cursor = new Cursor(offset, end);
+        while (state.known < count && cursor.next() && cursor.getType() != GameLog.START) {
+            if (cursor.getType() == GameLog.DRAW) {
+                state.deck[state.known++] = (byte) cursor.getArgument();
+            }
+        }
+    }
+
+    /**
+     * Stores the table as it stands before an event
+     *
+     * @param offset Position of the event
+     * @param state Table to store
+     */
+    private void snapshot(int offset, ReplayState state) {
+        if (snapshots == snapshotOffsets.length) {
+            int size = snapshots * 2;
+            snapshotOffsets = Arrays.copyOf(snapshotOffsets, size);
+            snapshotTurns = Arrays.copyOf(snapshotTurns, size);
+            snapshotHands = Arrays.copyOf(snapshotHands, size * STRIDE);
+            snapshotPiles = Arrays.copyOf(snapshotPiles, size);
+            snapshotTops = Arrays.copyOf(snapshotTops, size);
+            snapshotCounts = Arrays.copyOf(snapshotCounts, size);
+            snapshotOrders = Arrays.copyOf(snapshotOrders, size);
+        }
+        int deck = state.known - state.drawn;
+        if (ordersSize + deck + state.discarded > orders.length) {
+            orders = Arrays.copyOf(orders, Math.max(orders.length * 2, ordersSize + deck + state.discarded));
+        }
+        snapshotOrders[snapshots] = ordersSize;
+        snapshotCounts[snapshots] = deck | state.discarded << 16;
+        System.arraycopy(state.deck, state.drawn, orders, ordersSize, deck);
+        System.arraycopy(state.discards, 0, orders, ordersSize + deck, state.discarded);
+        ordersSize += deck + state.discarded;
+        snapshotOffsets[snapshots] = offset;
+        snapshotTurns[snapshots] = state.turn;
+        System.arraycopy(state.hands, 0, snapshotHands, snapshots * STRIDE, STRIDE);
+        snapshotPiles[snapshots] = state.pile;
+        snapshotTops[snapshots] = state.top | state.suit << 8 | state.players << 16;
+        snapshots++;
+    }
+
+    /**
+     * Loads a snapshot
+     *
+     * @param snapshot Index of the snapshot
+     * @param state State to fill in
+     */
+    private void restore(int snapshot, ReplayState state) {
+        state.clear();
+        System.arraycopy(snapshotHands, snapshot * STRIDE, state.hands, 0, STRIDE);
+        state.pile = snapshotPiles[snapshot];
+        state.top = snapshotTops[snapshot] & 0xff;
+        state.suit = snapshotTops[snapshot] >> 8 & 0xff;
+        state.players = snapshotTops[snapshot] >> 16;
+        state.turn = snapshotTurns[snapshot];
+        int deck = snapshotCounts[snapshot] & 0xffff;
+        state.known = deck;
+        state.discarded = snapshotCounts[snapshot] >>> 16;
+        System.arraycopy(orders, snapshotOrders[snapshot], state.deck, 0, deck);
+        System.arraycopy(orders, snapshotOrders[snapshot] + deck, state.discards, 0, state.discarded);
+    }
+
+    /**
+     * Gets where a game's events end
+     *
+     * @param game Number of the game
+     * @return Offset just past the game's last event
+     */
+    private int end(int game) {
+        return game + 1 < games ? gameOffsets[game + 1] : end;
+    }
+
+    /**
+     * Makes room for one more element
+     *
+     * @param array Array to grow
+     * @param size Number of elements in use
+     * @return The array or a larger copy
+     */
+    private static int[] grow(int[] array, int size) {
+        return size < array.length ? array : Arrays.copyOf(array, size * 2);
+    }
+
+    /**
+     * Walks forward through logged events, decoding them in place
+     */
+    public class Cursor {
+
+        private int position;
+
+        private final int end;
+
+        private int offset;
+
+        private int type;
+
+        private int seat;
+
+        private int argument;
+
+        Cursor(int position, int end) {
+            this.position = position;
+            this.end = end;
+        }
+
+        /**
+         * Moves to the next event
+         *
+         * @return false if there are no more whole events
+         */
+        public boolean next() {
+            if (position >= end) {
+                return false;
+            }
+            int header = buffer.get(position) & 0xff;
+            int type = header >> 4;
+            int size = type == GameLog.START ? 1 : type == GameLog.GAME_OVER ? 3 : 2;
+            if (position + size > end) {
+                return false;
+            }
+            offset = position;
+            this.type = type;
+            seat = header & 0xf;
+            if (type == GameLog.START) {
+                argument = 0;
+            } else if (type == GameLog.GAME_OVER) {
+                argument = buffer.getShort(position + 1) & 0xffff;
+            } else {
+                argument = buffer.get(position + 1) & 0xff;
+            }
+            position += size;
+            return true;
+        }
+
+        /**
+         * Gets the event type
+         *
+         * @return type One of the GameLog event types
+         */
+        public int getType() {
+            return type;
+        }
+
+        /**
+         * Gets the seat of the event, or the number of players for START
+         *
+         * @return seat Seat number
+         */
+        public int getSeat() {
+            return seat;
+        }
+
+        /**
+         * Gets the card index, suit or score of the event
+         *
+         * @return argument Event argument
+         */
+        public int getArgument() {
+            return argument;
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package crazy8s.log;
+
+import crazy8s.GameListener;
+import crazy8s.card.Card;
+import crazy8s.player.IPlayer;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Append-only binary log of game events. Each event starts with one byte
+ * holding the event type in the high four bits and the seat in the low four,
+ * followed by its argument:
+ * <pre>
+ * START     players in the low bits, no argument
+ * DEAL      seat, card index
+ * TURN_UP   card index of the first discard
+ * PLAY      seat, card index
+ * SUIT      seat, suit declared with an 8
+ * DRAW      seat, card index
+ * GAME_OVER winning seat or NO_SEAT, score as two bytes big-endian
+ * </pre>
+ * Events are collected in a direct buffer and written through a FileChannel
+ * when it fills. As a GameListener the log records a game it is added to. A
+ * log is not thread safe; give each thread its own file.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class GameLog implements Closeable, GameListener {
+
+    public final static int START = 0;
+
+    public final static int DEAL = 1;
+
+    public final static int TURN_UP = 2;
+
+    public final static int PLAY = 3;
+
+    public final static int SUIT = 4;
+
+    public final static int DRAW = 5;
+
+    public final static int GAME_OVER = 6;
+
+    /**
+     * Seat recorded when a game ends without a winner
+     */
+    public final static int NO_SEAT = 15;
+
+    private final static int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * Constructor, appending to the file if it exists
+     *
+     * @param path File to write
+     * @throws IOException If the file cannot be opened
+     */
+    public GameLog(Path path) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param channel Channel to write, positioned where events should go
+     */
+    public GameLog(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Records the start of a game
+     *
+     * @param players Number of players
+     */
+    public void start(int players) {
+        reserve(1);
+        buffer.put((byte) (START << 4 | players));
+    }
+
+    /**
+     * Records a card dealt to a player
+     *
+     * @param seat Seat of the player
+     * @param card Card index
+     */
+    public void deal(int seat, int card) {
+        event(DEAL, seat, card);
+    }
+
+    /**
+     * Records the first discard turned up after the deal
+     *
+     * @param card Card index
+     */
+    public void turnUp(int card) {
+        event(TURN_UP, 0, card);
+    }
+
+    /**
+     * Records a card played
+     *
+     * @param seat Seat of the player
+     * @param card Card index
+     */
+    public void play(int seat, int card) {
+        event(PLAY, seat, card);
+    }
+
+    /**
+     * Records the suit declared after an 8
+     *
+     * @param seat Seat of the player
+     * @param suit Declared suit
+     */
+    public void suit(int seat, int suit) {
+        event(SUIT, seat, suit);
+    }
+
+    /**
+     * Records a card drawn
+     *
+     * @param seat Seat of the player
+     * @param card Card index
+     */
+    public void draw(int seat, int card) {
+        event(DRAW, seat, card);
+    }
+
+    /**
+     * Records the end of a game
+     *
+     * @param seat Seat of the winner, -1 if nobody won
+     * @param score Points earned by the winner
+     */
+    public void gameOver(int seat, int score) {
+        reserve(3);
+        buffer.put((byte) (GAME_OVER << 4 | (seat < 0 ? NO_SEAT : seat)));
+        buffer.putShort((short) score);
+    }
+
+    /**
+     * Records the start of a game
+     *
+     * @param players Players in turn order
+     */
+    @Override
+    public void started(List<IPlayer> players) {
+        start(players.size());
+    }
+
+    /**
+     * Records a card dealt to a player
+     *
+     * @param seat Seat of the player
+     * @param card Card dealt
+     */
+    @Override
+    public void dealt(int seat, Card card) {
+        deal(seat, card.getIndex());
+    }
+
+    /**
+     * Records the first discard turned up after the deal
+     *
+     * @param card Card turned up
+     */
+    @Override
+    public void turnedUp(Card card) {
+        turnUp(card.getIndex());
+    }
+
+    /**
+     * Records a card played
+     *
+     * @param seat Seat of the player
+     * @param player Player making this play
+     * @param card Card they played
+     */
+    @Override
+    public void played(int seat, IPlayer player, Card card) {
+        play(seat, card.getIndex());
+    }
+
+    /**
+     * Records the suit declared after an 8
+     *
+     * @param seat Seat of the player
+     * @param player Player who played the 8
+     * @param suit Declared suit
+     */
+    @Override
+    public void suitChanged(int seat, IPlayer player, int suit) {
+        suit(seat, suit);
+    }
+
+    /**
+     * Records a card drawn
+     *
+     * @param seat Seat of the player
+     * @param player Player drawing a card
+     * @param card Card drawn from deck
+     */
+    @Override
+    public void drew(int seat, IPlayer player, Card card) {
+        draw(seat, card.getIndex());
+    }
+
+    /**
+     * Records the end of a game
+     *
+     * @param seat Seat of the winner, -1 if nobody won
+     * @param winner Player who went out, null if nobody won
+     * @param score Points earned by the winner
+     */
+    @Override
+    public void gameOver(int seat, IPlayer winner, int score) {
+        gameOver(seat, score);
+    }
+
+    /**
+     * Writes the buffered events to the file
+     */
+    public void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Writes the buffered events and closes the file
+     *
+     * @throws IOException If the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    /**
+     * Records a two byte event
+     *
+     * @param type Event type
+     * @param seat Seat of the player
+     * @param argument Card index or suit
+     */
+    private void event(int type, int seat, int argument) {
+        reserve(2);
+        buffer.put((byte) (type << 4 | seat));
+        buffer.put((byte) argument);
+    }
+
+    /**
+     * Makes room in the buffer, writing it out if needed
+     *
+     * @param bytes Number of bytes about to be put
+     */
+    private void reserve(int bytes) {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
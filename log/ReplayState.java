@@ -0,0 +1,273 @@
+package crazy8s.log;
+
+import crazy8s.card.Cards;
+import crazy8s.card.Deck;
+
+/**
+ * Table state rebuilt from logged events: the hands, the discard pile, the
+ * declared suit and how many cards have been played. The deck is every card
+ * not in a hand or the discard pile. Shuffles are not logged, but every card
+ * leaves the deck in a DRAW event, so a GameArchive fills in the order of the
+ * deck from the draws still to come; cards never drawn before the game ended
+ * have no known order. The discard pile keeps the order the cards were
+ * played in.
+ * Hands and the pile are sets of card indexes, so games dealt from a shoe of
+ * several decks, where a card can appear twice, are not rebuilt exactly.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class ReplayState {
+
+    /**
+     * Most seats a logged game can have
+     */
+    public final static int MAX_SEATS = 8;
+
+    /**
+     * Most cards the deck or the discard pile can hold
+     */
+    final static int MAX_CARDS = Cards.COUNT * Deck.MAX_DECKS;
+
+    final long[] hands = new long[MAX_SEATS];
+
+    /**
+     * Deck order from the top, known from deck[drawn] to deck[known - 1]
+     */
+    final byte[] deck = new byte[MAX_CARDS];
+
+    int drawn;
+
+    int known;
+
+    /**
+     * Discard pile under the top card, from the bottom
+     */
+    final byte[] discards = new byte[MAX_CARDS];
+
+    int discarded;
+
+    int players;
+
+    long pile;
+
+    int top = -1;
+
+    int suit;
+
+    int turn;
+
+    int winner = -1;
+
+    int score;
+
+    /**
+     * Applies one logged event
+     *
+     * @param type Event type
+     * @param seat Seat of the event
+     * @param argument Card index, suit, or score for GAME_OVER
+     */
+    public void apply(int type, int seat, int argument) {
+        switch (type) {
+            case GameLog.START:
+                clear();
+                players = seat;
+                break;
+            case GameLog.DEAL:
+                hands[seat] |= Cards.bit(argument);
+                break;
+            case GameLog.TURN_UP:
+                top = argument;
+                suit = Cards.suit(argument);
+                break;
+            case GameLog.PLAY:
+                hands[seat] &= ~Cards.bit(argument);
+                pile |= Cards.bit(top);
+                discards[discarded++] = (byte) top;
+                top = argument;
+                suit = Cards.suit(argument);
+                turn++;
+                break;
+            case GameLog.SUIT:
+                suit = argument;
+                break;
+            case GameLog.DRAW:
+                if (getDeck() == 0) {
+                    // The discard pile under the top card was reshuffled,
+                    // in an order only the draws to come show
+                    pile = 0;
+                    discarded = 0;
+                    drawn = known;
+                }
+                if (drawn < known && deck[drawn] == argument) {
+                    drawn++;
+                } else {
+                    drawn = known;
+                }
+                hands[seat] |= Cards.bit(argument);
+                break;
+            case GameLog.GAME_OVER:
+                winner = seat == GameLog.NO_SEAT ? -1 : seat;
+                score = argument;
+                break;
+            default:
+                throw new IllegalArgumentException("unknown event type " + type);
+        }
+    }
+
+    /**
+     * Copies another state into me
+     *
+     * @param other State to copy
+     */
+    public void copyFrom(ReplayState other) {
+        System.arraycopy(other.hands, 0, hands, 0, MAX_SEATS);
+        System.arraycopy(other.deck, other.drawn, deck, 0, other.known - other.drawn);
+        drawn = 0;
+        known = other.known - other.drawn;
+        System.arraycopy(other.discards, 0, discards, 0, other.discarded);
+        discarded = other.discarded;
+        players = other.players;
+        pile = other.pile;
+        top = other.top;
+        suit = other.suit;
+        turn = other.turn;
+        winner = other.winner;
+        score = other.score;
+    }
+
+    /**
+     * Empties the table
+     */
+    void clear() {
+        for (int seat = 0; seat < MAX_SEATS; seat++) {
+            hands[seat] = 0;
+        }
+        players = 0;
+        drawn = 0;
+        known = 0;
+        discarded = 0;
+        pile = 0;
+        top = -1;
+        suit = 0;
+        turn = 0;
+        winner = -1;
+        score = 0;
+    }
+
+    /**
+     * Gets a player's hand
+     *
+     * @param seat Seat of the player
+     * @return Mask of the cards in the hand
+     */
+    public long getHand(int seat) {
+        return hands[seat];
+    }
+
+    /**
+     * Gets the cards still in the deck
+     *
+     * @return Mask of the cards in the deck
+     */
+    public long getDeck() {
+        long deck = Cards.ALL & ~pile;
+        if (top != -1) {
+            deck &= ~Cards.bit(top);
+        }
+        for (int seat = 0; seat < players; seat++) {
+            deck &= ~hands[seat];
+        }
+        return deck;
+    }
+
+    /**
+     * Gets the order of the deck as far as the rest of the game shows it
+     *
+     * @return Card indexes from the top of the deck; cards after them were
+     * never drawn
+     */
+    public int[] getDeckOrder() {
+        int[] order = new int[known - drawn];
+        for (int index = 0; index < order.length; index++) {
+            order[index] = deck[drawn + index];
+        }
+        return order;
+    }
+
+    /**
+     * Gets the order of the discard pile under the top card
+     *
+     * @return Card indexes from the bottom of the pile
+     */
+    public int[] getPileOrder() {
+        int[] order = new int[discarded];
+        for (int index = 0; index < order.length; index++) {
+            order[index] = discards[index];
+        }
+        return order;
+    }
+
+    /**
+     * Gets the discard pile under the top card
+     *
+     * @return pile Mask of the cards in the discard pile
+     */
+    public long getPile() {
+        return pile;
+    }
+
+    /**
+     * Gets the discard card
+     *
+     * @return top Card index, -1 before the deal
+     */
+    public int getTop() {
+        return top;
+    }
+
+    /**
+     * Gets the suit to follow
+     *
+     * @return suit Suit of the discard, or the suit declared after an 8
+     */
+    public int getSuit() {
+        return suit;
+    }
+
+    /**
+     * Gets the number of cards played since the deal
+     *
+     * @return turn Number of plays
+     */
+    public int getTurn() {
+        return turn;
+    }
+
+    /**
+     * Gets the number of players
+     *
+     * @return players Number of seats
+     */
+    public int getPlayers() {
+        return players;
+    }
+
+    /**
+     * Gets the winner once the game is over
+     *
+     * @return winner Seat of the winner, -1 if none yet or nobody won
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Gets the points earned by the winner once the game is over
+     *
+     * @return score Points
+     */
+    public int getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,150 @@
+package crazy8s.metrics;
+
+import crazy8s.player.IPlayer;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and decision latencies shared by any number of games on any
+ * number of threads. Counters are LongAdders and histograms are lock-free,
+ * so recording never blocks a table. A game adds its totals once when it
+ * ends; decision latencies are recorded by player type for one call in every
+ * sample interval, since reading the clock around every call of a fast bot
+ * costs about as much as the call.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class GameMetrics {
+
+    private final int sampleMask;
+
+    private final LongAdder games = new LongAdder();
+
+    private final LongAdder blocked = new LongAdder();
+
+    private final LongAdder turns = new LongAdder();
+
+    private final LongAdder draws = new LongAdder();
+
+    private final LongAdder reshuffles = new LongAdder();
+
+    private final LongAdder eights = new LongAdder();
+
+    private final Histogram gameLength = new Histogram();
+
+    private final ConcurrentHashMap<String, Histogram> commandLatency = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Histogram> suitLatency = new ConcurrentHashMap<>();
+
+    /**
+     * Command and suit histograms of each player class, found without
+     * hashing the name on every call
+     */
+    private final ClassValue<Histogram[]> byType = new ClassValue<Histogram[]>() {
+        @Override
+        protected Histogram[] computeValue(Class<?> type) {
+            String name = type.getSimpleName().isEmpty() ? type.getName() : type.getSimpleName();
+            return new Histogram[]{
+                commandLatency.computeIfAbsent(name, key -> new Histogram()),
+                suitLatency.computeIfAbsent(name, key -> new Histogram())
+            };
+        }
+    };
+
+    /**
+     * Constructor timing every decision
+     */
+    public GameMetrics() {
+        this(1);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param sampleInterval Time one decision in this many, a power of two
+     */
+    public GameMetrics(int sampleInterval) {
+        if (Integer.bitCount(sampleInterval) != 1) {
+            throw new IllegalArgumentException("sample interval must be a power of two");
+        }
+        this.sampleMask = sampleInterval - 1;
+    }
+
+    /**
+     * Decides whether to time a decision
+     *
+     * @param decision Number of the decision within its game
+     * @return true if it is to be timed
+     */
+    public boolean isSampled(int decision) {
+        return (decision & sampleMask) == 0;
+    }
+
+    /**
+     * Records the totals of a finished game
+     *
+     * @param turns Turns played
+     * @param draws Cards drawn after the deal
+     * @param eights 8s played
+     * @param reshuffles Times the discard pile was shuffled back into the deck
+     * @param won false if the game ended without a winner
+     */
+    public void recordGame(int turns, int draws, int eights, int reshuffles, boolean won) {
+        games.increment();
+        if (!won) {
+            blocked.increment();
+        }
+        this.turns.add(turns);
+        this.draws.add(draws);
+        this.eights.add(eights);
+        this.reshuffles.add(reshuffles);
+        gameLength.record(turns);
+    }
+
+    /**
+     * Records how long a player took to give a command
+     *
+     * @param player Player asked
+     * @param nanos Time from asking to the answer
+     */
+    public void recordCommand(IPlayer player, long nanos) {
+        byType.get(player.getClass())[0].record(nanos);
+    }
+
+    /**
+     * Records how long a player took to choose the suit of an 8
+     *
+     * @param player Player asked
+     * @param nanos Time from asking to the answer
+     */
+    public void recordSuit(IPlayer player, long nanos) {
+        byType.get(player.getClass())[1].record(nanos);
+    }
+
+    /**
+     * Copies every counter and histogram
+     *
+     * @return Snapshot of the metrics
+     */
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(games.sum(), blocked.sum(), turns.sum(), draws.sum(),
+                reshuffles.sum(), eights.sum(), gameLength.snapshot(),
+                snapshots(commandLatency), snapshots(suitLatency));
+    }
+
+    /**
+     * Copies histograms by player type
+     *
+     * @param histograms Histograms by player type
+     * @return Snapshots sorted by player type
+     */
+    private static Map<String, Histogram.Snapshot> snapshots(Map<String, Histogram> histograms) {
+        TreeMap<String, Histogram.Snapshot> copies = new TreeMap<>();
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            copies.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return copies;
+    }
+}
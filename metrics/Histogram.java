@@ -0,0 +1,181 @@
+package crazy8s.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values such as nanoseconds. Values are
+ * counted in log-linear buckets, eight per power of two, so a bucket is at
+ * most 12.5% wide and the whole range of long fits in under 500 buckets.
+ * Every bucket is a LongAdder, which stripes updates across cells, so many
+ * threads can record at once without contending on one counter.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class Histogram {
+
+    private final static int SUB_BITS = 3;
+
+    private final static int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final static int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+    private final LongAdder sum = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    /**
+     * Constructor
+     */
+    public Histogram() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts[bucket] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a value
+     *
+     * @param value Value, negative values count as 0
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[bucket(value)].increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Finds the bucket of a value
+     *
+     * @param value Non-negative value
+     * @return Bucket index
+     */
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Gets the largest value a bucket holds
+     *
+     * @param bucket Bucket index
+     * @return Highest value counted in the bucket
+     */
+    static long highest(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * Copies the counts. Values recorded while copying may or may not be
+     * included.
+     *
+     * @return Snapshot of the histogram
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            copy[bucket] = counts[bucket].sum();
+            count += copy[bucket];
+        }
+        return new Snapshot(copy, count, sum.sum(), max.get());
+    }
+
+    /**
+     * Counts of a histogram at one moment
+     */
+    public static class Snapshot {
+
+        private final long[] counts;
+
+        private final long count;
+
+        private final long sum;
+
+        private final long max;
+
+        /**
+         * Constructor
+         *
+         * @param counts Count of each bucket
+         * @param count Number of values
+         * @param sum Sum of the values
+         * @param max Largest value
+         */
+        Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * Gets the number of values recorded
+         *
+         * @return count Number of values
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the mean value
+         *
+         * @return Mean, 0 if nothing was recorded
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Gets the largest value recorded
+         *
+         * @return max Largest value
+         */
+        public long getMax() {
+            return max;
+        }
+
+        /**
+         * Gets a percentile, rounded up to the top of its bucket
+         *
+         * @param percentile Percentile from 0 to 100
+         * @return Value at or below which that share of values lie
+         */
+        public long getPercentile(double percentile) {
+            long rank = (long) Math.ceil(percentile / 100 * count);
+            long seen = 0;
+            for (int bucket = 0; bucket < counts.length; bucket++) {
+                seen += counts[bucket];
+                if (seen >= rank && seen > 0) {
+                    return Math.min(highest(bucket), max);
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Converts me to a string
+         *
+         * @return Count, mean, median, 99th percentile and maximum
+         */
+        @Override
+        public String toString() {
+            return String.format("count %d, mean %.1f, p50 %d, p99 %d, max %d",
+                    count, getMean(), getPercentile(50), getPercentile(99), max);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package crazy8s.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Game metrics at one moment, safe to keep, compare and print while games
+ * go on. Latencies are in nanoseconds.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class MetricsSnapshot {
+
+    private final long games;
+
+    private final long blocked;
+
+    private final long turns;
+
+    private final long draws;
+
+    private final long reshuffles;
+
+    private final long eights;
+
+    private final Histogram.Snapshot gameLength;
+
+    private final Map<String, Histogram.Snapshot> commandLatency;
+
+    private final Map<String, Histogram.Snapshot> suitLatency;
+
+    /**
+     * Constructor
+     *
+     * @param games Games finished
+     * @param blocked Games that ended without a winner
+     * @param turns Turns played
+     * @param draws Cards drawn after the deal
+     * @param reshuffles Times the discard pile was shuffled back into the deck
+     * @param eights 8s played
+     * @param gameLength Turns per game
+     * @param commandLatency Command latency by player type
+     * @param suitLatency Suit latency by player type
+     */
+    MetricsSnapshot(long games, long blocked, long turns, long draws, long reshuffles, long eights,
+            Histogram.Snapshot gameLength, Map<String, Histogram.Snapshot> commandLatency,
+            Map<String, Histogram.Snapshot> suitLatency) {
+        this.games = games;
+        this.blocked = blocked;
+        this.turns = turns;
+        this.draws = draws;
+        this.reshuffles = reshuffles;
+        this.eights = eights;
+        this.gameLength = gameLength;
+        this.commandLatency = Collections.unmodifiableMap(commandLatency);
+        this.suitLatency = Collections.unmodifiableMap(suitLatency);
+    }
+
+    /**
+     * Gets the number of games finished
+     *
+     * @return games Games finished
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Gets the number of games that ended without a winner
+     *
+     * @return blocked Blocked games
+     */
+    public long getBlocked() {
+        return blocked;
+    }
+
+    /**
+     * Gets the number of turns played
+     *
+     * @return turns Turns played
+     */
+    public long getTurns() {
+        return turns;
+    }
+
+    /**
+     * Gets the number of cards drawn after the deal
+     *
+     * @return draws Cards drawn
+     */
+    public long getDraws() {
+        return draws;
+    }
+
+    /**
+     * Gets the number of times the discard pile was shuffled back into the
+     * deck
+     *
+     * @return reshuffles Reshuffles
+     */
+    public long getReshuffles() {
+        return reshuffles;
+    }
+
+    /**
+     * Gets the number of 8s played
+     *
+     * @return eights 8s played
+     */
+    public long getEights() {
+        return eights;
+    }
+
+    /**
+     * Gets the distribution of turns per game
+     *
+     * @return gameLength Turns per game
+     */
+    public Histogram.Snapshot getGameLength() {
+        return gameLength;
+    }
+
+    /**
+     * Gets how long each type of player took to give a command
+     *
+     * @return commandLatency Nanoseconds by player type
+     */
+    public Map<String, Histogram.Snapshot> getCommandLatency() {
+        return commandLatency;
+    }
+
+    /**
+     * Gets how long each type of player took to choose a suit
+     *
+     * @return suitLatency Nanoseconds by player type
+     */
+    public Map<String, Histogram.Snapshot> getSuitLatency() {
+        return suitLatency;
+    }
+
+    /**
+     * Converts me to a report, one metric per line
+     *
+     * @return Report
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append("games ").append(games).append(" (").append(blocked).append(" blocked)\n");
+        report.append("turns ").append(turns).append(", draws ").append(draws)
+                .append(", reshuffles ").append(reshuffles).append(", 8s played ").append(eights).append('\n');
+        report.append("turns per game: ").append(gameLength).append('\n');
+        for (Map.Entry<String, Histogram.Snapshot> entry : commandLatency.entrySet()) {
+            report.append(entry.getKey()).append(" command ns: ").append(entry.getValue()).append('\n');
+        }
+        for (Map.Entry<String, Histogram.Snapshot> entry : suitLatency.entrySet()) {
+            if (entry.getValue().getCount() > 0) {
+                report.append(entry.getKey()).append(" suit ns: ").append(entry.getValue()).append('\n');
+            }
+        }
+        return report.toString();
+    }
+}
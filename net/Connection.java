@@ -0,0 +1,205 @@
+package crazy8s.net;
+
+import crazy8s.rating.Standing;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One client socket, owned by a single event loop at a time. Incoming bytes
+ * are split into lines for the loop; outgoing lines are encoded in UTF-8,
+ * buffered and written when the socket accepts them. A client that lets more
+ * than MAX_OUTPUT bytes pile up unread is dropped by the loop. A client
+ * paired with one waiting on another loop moves there, taking any lines
+ * and output not yet handled with it.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+class Connection {
+
+    private final static int MAX_LINE = 256;
+
+    /**
+     * Most bytes queued for a client before they are dropped
+     */
+    final static int MAX_OUTPUT = 1 << 16;
+
+    private final SocketChannel channel;
+
+    private SelectionKey key;
+
+    private EventLoop loop;
+
+    private ByteBuffer in = ByteBuffer.allocate(MAX_LINE);
+
+    private ByteBuffer out = ByteBuffer.allocate(512);
+
+    private final StringBuilder line = new StringBuilder();
+
+    private boolean closed;
+
+    private boolean overflowed;
+
+    RemotePlayer player;
+
+    boolean waiting;
+
+    long since;
+
+    Connection partner;
+
+    Standing standing;
+
+    /**
+     * Constructor
+     *
+     * @param channel Connected socket in non-blocking mode
+     * @param key Key of the socket in the loop's selector
+     * @param loop Loop owning the socket
+     */
+    Connection(SocketChannel channel, SelectionKey key, EventLoop loop) {
+        this.channel = channel;
+        this.key = key;
+        this.loop = loop;
+    }
+
+    /**
+     * Reads what the socket has and hands every complete line to the loop
+     *
+     * @return false if the client closed the connection
+     * @throws IOException If the read fails
+     */
+    boolean read() throws IOException {
+        int count = channel.read(in);
+        if (count < 0) {
+            return false;
+        }
+        handleLines();
+        return true;
+    }
+
+    /**
+     * Hands the complete lines read so far to the loop. Stops once the
+     * client is closed or paired with a partner on another loop, keeping the
+     * rest for the loop they move to.
+     */
+    void handleLines() {
+        in.flip();
+        while (in.hasRemaining() && !closed && partner == null) {
+            char c = (char) (in.get() & 0xff);
+            if (c == '\n') {
+                loop.handle(this, line.toString().trim());
+                line.setLength(0);
+            } else if (line.length() < MAX_LINE) {
+                line.append(c);
+            }
+        }
+        in.compact();
+    }
+
+    /**
+     * Gets the loop owning the socket
+     *
+     * @return loop Event loop
+     */
+    EventLoop getLoop() {
+        return loop;
+    }
+
+    /**
+     * Takes the socket out of its loop's selector, ready for another loop
+     * to attach it
+     */
+    void detach() {
+        key.cancel();
+    }
+
+    /**
+     * Registers the socket with another loop's selector, which owns it from
+     * then on. Output still queued is written there.
+     *
+     * @param selector Selector of the new loop
+     * @param loop New loop
+     * @throws ClosedChannelException If the socket was closed
+     */
+    void attach(Selector selector, EventLoop loop) throws ClosedChannelException {
+        int ops = out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+        key = channel.register(selector, ops, this);
+        this.loop = loop;
+    }
+
+    /**
+     * Queues a line for the client. If that would put more than MAX_OUTPUT
+     * bytes in the queue, the line is thrown away and the loop told to drop
+     * the client.
+     *
+     * @param message Line without the line break
+     */
+    void send(String message) {
+        if (closed || overflowed) {
+            return;
+        }
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        int length = bytes.length + 1;
+        if (out.position() + length > MAX_OUTPUT) {
+            overflowed = true;
+            loop.overflowed(this);
+            return;
+        }
+        if (out.remaining() < length) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.min(Math.max(out.capacity() * 2, out.position() + length),
+                    MAX_OUTPUT));
+            out.flip();
+            bigger.put(out);
+            out = bigger;
+        }
+        out.put(bytes);
+        out.put((byte) '\n');
+        if ((key.interestOps() & SelectionKey.OP_WRITE) == 0) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        }
+    }
+
+    /**
+     * Writes as much queued output as the socket takes
+     *
+     * @throws IOException If the write fails
+     */
+    void flush() throws IOException {
+        out.flip();
+        channel.write(out);
+        out.compact();
+        if (out.position() == 0) {
+            key.interestOps(SelectionKey.OP_READ);
+            if (out.capacity() > 512) {
+                out = ByteBuffer.allocate(512);
+            }
+        }
+    }
+
+    /**
+     * Closes the socket
+     */
+    void close() {
+        closed = true;
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to do with a socket that will not close
+        }
+    }
+
+    /**
+     * Checks whether the connection was closed
+     *
+     * @return true if closed
+     */
+    boolean isClosed() {
+        return closed;
+    }
+}
@@ -0,0 +1,482 @@
+package crazy8s.net;
+
+import crazy8s.log.Checkpoints;
+import crazy8s.metrics.GameMetrics;
+import crazy8s.player.Command;
+import crazy8s.player.IPlayer;
+import crazy8s.player.Opponent;
+import crazy8s.rating.Leaderboard;
+import crazy8s.rating.Standing;
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One selector thread serving its share of the connections. Every table is
+ * owned by the loop of the clients seated at it, so games need no locks and
+ * an idle connection costs a selection key and two small buffers.
+ *
+ * Clients who JOIN wait in a lobby shared by every loop. A client who finds
+ * someone waiting on another loop moves to that loop, which seats the pair.
+ * A client still waiting after MAX_WAIT is seated against a bot by their own
+ * loop.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+class EventLoop implements Runnable {
+
+    /**
+     * Longest name a client can register
+     */
+    private final static int MAX_NAME = 16;
+
+    /**
+     * Most players a client can ask for with TOP
+     */
+    private final static int MAX_TOP = 20;
+
+    /**
+     * Longest a client waits in the lobby before playing a bot, in
+     * nanoseconds
+     */
+    private final static long MAX_WAIT = TimeUnit.SECONDS.toNanos(5);
+
+    private final Selector selector;
+
+    private final ConcurrentLinkedQueue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+
+    private final ConcurrentLinkedQueue<Connection> joined = new ConcurrentLinkedQueue<>();
+
+    private final Queue<Connection> lobby;
+
+    private final ArrayDeque<Connection> waiting = new ArrayDeque<>();
+
+    private final ArrayDeque<Connection> overflowed = new ArrayDeque<>();
+
+    private final ArrayDeque<Connection> leaving = new ArrayDeque<>();
+
+    private final SplittableRandom random;
+
+    private final GameMetrics metrics;
+
+    private final Checkpoints checkpoints;
+
+    private final Leaderboard leaderboard;
+
+    private volatile boolean running = true;
+
+    /**
+     * Constructor
+     *
+     * @param random Random source for the loop's tables
+     * @param metrics Metrics shared by every table of the server
+     * @param checkpoints Checkpoints shared by every table of the server,
+     * null for none
+     * @param leaderboard Leaderboard shared by every table of the server
+     * @param lobby Clients waiting for an opponent, shared by every loop of
+     * the server
+     * @throws IOException If no selector can be opened
+     */
+    EventLoop(SplittableRandom random, GameMetrics metrics, Checkpoints checkpoints, Leaderboard leaderboard,
+            Queue<Connection> lobby) throws IOException {
+        this.selector = Selector.open();
+        this.lobby = lobby;
+        this.random = random;
+        this.metrics = metrics;
+        this.checkpoints = checkpoints;
+        this.leaderboard = leaderboard;
+    }
+
+    /**
+     * Hands a new connection to the loop. Called from the accepting thread.
+     *
+     * @param channel Accepted socket
+     */
+    void add(SocketChannel channel) {
+        accepted.add(channel);
+        selector.wakeup();
+    }
+
+    /**
+     * Hands the loop a client paired with one waiting here. Called from the
+     * loop the client comes from, once it has detached them.
+     *
+     * @param connection Client whose partner is waiting on this loop
+     */
+    void adopt(Connection connection) {
+        joined.add(connection);
+        selector.wakeup();
+    }
+
+    /**
+     * Stops the loop and closes its connections
+     */
+    void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select(timeout());
+                register();
+                adopt();
+                move();
+                expire();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isValid() && key.isReadable() && !connection.read()) {
+                            drop(connection);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    } catch (IOException e) {
+                        drop(connection);
+                    }
+                    while (!overflowed.isEmpty()) {
+                        drop(overflowed.poll());
+                    }
+                    move();
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            System.err.println("event loop failed: " + e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                ((Connection) key.attachment()).close();
+            }
+            Connection connection;
+            while ((connection = joined.poll()) != null) {
+                connection.close();
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                System.err.println(e);
+            }
+        }
+    }
+
+    /**
+     * Registers the connections accepted since the last select
+     *
+     * @throws IOException If a socket cannot be registered
+     */
+    private void register() throws IOException {
+        SocketChannel channel;
+        while ((channel = accepted.poll()) != null) {
+            channel.configureBlocking(false);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            Connection connection = new Connection(channel, key, this);
+            key.attach(connection);
+            connection.send("WELCOME");
+        }
+    }
+
+    /**
+     * Takes in the clients other loops paired with one waiting here, and
+     * seats each pair. A client whose partner left meanwhile joins again.
+     */
+    private void adopt() {
+        Connection connection;
+        while ((connection = joined.poll()) != null) {
+            Connection other = connection.partner;
+            connection.partner = null;
+            try {
+                connection.attach(selector, this);
+            } catch (IOException e) {
+                connection.close();
+                if (!other.isClosed()) {
+                    other.waiting = false;
+                    seat(new RemotePlayer(other), new Opponent());
+                }
+                continue;
+            }
+            if (other.isClosed()) {
+                join(connection);
+            } else {
+                pair(other, connection);
+            }
+            connection.handleLines();
+        }
+    }
+
+    /**
+     * Hands the clients paired with one waiting on another loop to that
+     * loop, once the event being handled is done with them
+     */
+    private void move() {
+        Connection connection;
+        while ((connection = leaving.poll()) != null) {
+            connection.detach();
+            connection.partner.getLoop().adopt(connection);
+        }
+    }
+
+    /**
+     * Seats every client of this loop who has waited MAX_WAIT in the lobby
+     * against a bot
+     */
+    private void expire() {
+        long now = System.nanoTime();
+        Connection connection;
+        while ((connection = waiting.peek()) != null && now - connection.since >= MAX_WAIT) {
+            waiting.poll();
+            // A client another loop took from the lobby is about to be paired
+            if (!connection.isClosed() && lobby.remove(connection)) {
+                connection.waiting = false;
+                seat(new RemotePlayer(connection), new Opponent());
+            }
+        }
+    }
+
+    /**
+     * Gets how long to wait for events before the oldest client in the
+     * lobby is due a bot
+     *
+     * @return Milliseconds, 0 to wait until an event
+     */
+    private long timeout() {
+        Connection connection = waiting.peek();
+        if (connection == null) {
+            return 0;
+        }
+        long left = connection.since + MAX_WAIT - System.nanoTime();
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(left) + 1);
+    }
+
+    /**
+     * Carries out one line sent by a client
+     *
+     * @param connection Client that sent it
+     * @param line Line without the line break
+     */
+    void handle(Connection connection, String line) {
+        String[] words = line.split(" ");
+        switch (words[0].toUpperCase()) {
+            case "SOLO":
+                if (isFree(connection) && name(connection, words)) {
+                    seat(new RemotePlayer(connection), new Opponent());
+                }
+                break;
+            case "JOIN":
+                if (isFree(connection) && name(connection, words)) {
+                    join(connection);
+                }
+                break;
+            case "TOP":
+                top(connection, words);
+                break;
+            case "PLAY":
+                move(connection, words);
+                break;
+            case "DRAW":
+                move(connection, words);
+                break;
+            case "QUIT":
+                drop(connection);
+                break;
+            default:
+                connection.send("ERROR unknown command");
+                break;
+        }
+    }
+
+    /**
+     * Checks that a client is neither playing nor waiting
+     *
+     * @param connection Client
+     * @return true if they may start a game
+     */
+    private boolean isFree(Connection connection) {
+        if (connection.player != null || connection.waiting) {
+            connection.send("ERROR already playing");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Registers the name a client sent with SOLO or JOIN: up to MAX_NAME
+     * letters, digits and underscores. Without a name the client keeps the
+     * last one they gave, or plays unranked.
+     *
+     * @param connection Client
+     * @param words SOLO or JOIN and an optional name
+     * @return false if the name is not allowed
+     */
+    private boolean name(Connection connection, String[] words) {
+        if (words.length < 2) {
+            return true;
+        }
+        String name = words[1];
+        if (name.length() > MAX_NAME || !name.matches("\\w+")) {
+            connection.send("ERROR bad name");
+            return false;
+        }
+        try {
+            connection.standing = leaderboard.register(name);
+        } catch (IllegalStateException e) {
+            connection.send("ERROR " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sends a client the players with the most points, on one line of
+     * names and points, best first
+     *
+     * @param connection Client
+     * @param words TOP and an optional number of players, default 10
+     */
+    private void top(Connection connection, String[] words) {
+        int k;
+        try {
+            k = words.length > 1 ? Integer.parseInt(words[1]) : 10;
+            if (k < 1 || k > MAX_TOP) {
+                throw new NumberFormatException();
+            }
+        } catch (NumberFormatException e) {
+            connection.send("ERROR bad count");
+            return;
+        }
+        StringBuilder message = new StringBuilder("TOP");
+        for (Standing standing : leaderboard.top(k)) {
+            message.append(' ').append(standing.getName()).append(' ').append(standing.getPoints());
+        }
+        connection.send(message.toString());
+    }
+
+    /**
+     * Pairs a client with the one who has waited longest in the lobby, or
+     * makes them wait. A client paired with one on another loop moves there
+     * once their line is handled.
+     *
+     * @param connection Client who wants an opponent
+     */
+    private void join(Connection connection) {
+        Connection other = lobby.poll();
+        if (other == null) {
+            connection.waiting = true;
+            connection.since = System.nanoTime();
+            waiting.add(connection);
+            lobby.add(connection);
+            connection.send("WAIT");
+        } else if (other.getLoop() == this) {
+            pair(other, connection);
+        } else {
+            connection.partner = other;
+            leaving.add(connection);
+        }
+    }
+
+    /**
+     * Seats a client who waited in the lobby against the one who found them
+     *
+     * @param other Client who waited on this loop
+     * @param connection Client who joined
+     */
+    private void pair(Connection other, Connection connection) {
+        other.waiting = false;
+        waiting.remove(other);
+        seat(new RemotePlayer(other), new RemotePlayer(connection));
+    }
+
+    /**
+     * Starts a table
+     *
+     * @param players Remote players and bots
+     */
+    private void seat(IPlayer... players) {
+        Table table = new Table(random.split(), players);
+        table.setMetrics(metrics);
+        table.setCheckpoints(checkpoints);
+        table.setLeaderboard(leaderboard);
+        for (IPlayer player : players) {
+            if (player instanceof RemotePlayer) {
+                ((RemotePlayer) player).getConnection().player = (RemotePlayer) player;
+            }
+        }
+        table.start();
+    }
+
+    /**
+     * Passes a PLAY or DRAW command to the client's table
+     *
+     * @param connection Client
+     * @param words PLAY, card index and optional suit; or DRAW
+     */
+    private void move(Connection connection, String[] words) {
+        RemotePlayer player = connection.player;
+        if (player == null) {
+            connection.send("ERROR not playing");
+            return;
+        }
+        int command;
+        int suit = 0;
+        try {
+            if (words[0].equalsIgnoreCase("DRAW")) {
+                command = Command.DRAW;
+            } else {
+                command = Integer.parseInt(words[1]);
+                if (command < 0 || command >= Command.SHOW) {
+                    throw new NumberFormatException();
+                }
+                if (words.length > 2) {
+                    suit = Integer.parseInt(words[2]);
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            connection.send("ERROR bad move");
+            return;
+        }
+        if (!player.receive(command, suit)) {
+            connection.send("ERROR not your turn");
+        }
+    }
+
+    /**
+     * Drops a client whose queued output passed Connection.MAX_OUTPUT, once
+     * the event being handled is done with
+     *
+     * @param connection Client that does not read what it is sent
+     */
+    void overflowed(Connection connection) {
+        overflowed.add(connection);
+    }
+
+    /**
+     * Closes a client's connection, giving their seat to a bot
+     *
+     * @param connection Client
+     */
+    private void drop(Connection connection) {
+        if (connection.isClosed()) {
+            return;
+        }
+        connection.close();
+        if (connection.waiting) {
+            waiting.remove(connection);
+            lobby.remove(connection);
+        }
+        if (connection.player != null) {
+            connection.player.getTable().leave(connection.player);
+        }
+    }
+}
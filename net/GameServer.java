@@ -0,0 +1,201 @@
+package crazy8s.net;
+
+import crazy8s.log.Checkpoints;
+import crazy8s.metrics.GameMetrics;
+import crazy8s.rating.Leaderboard;
+import crazy8s.rating.Standing;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Crazy 8s server. Clients connect over TCP and talk in lines of text:
+ *
+ * <pre>
+ * client: SOLO [name] | JOIN [name] | PLAY index [suit] | DRAW | TOP [k]
+ *         QUIT
+ * server: WELCOME | WAIT | START seat players | TURN top suit cards...
+ *         PLAYED seat card | DREW seat [card] | SUIT suit
+ *         OVER seat score | TOP [name points]... | ERROR reason
+ * </pre>
+ *
+ * Cards are sent as indexes 0-51 and card indexes in PLAY count from 0 in
+ * the order of the last TURN. One thread accepts connections and hands them
+ * round robin to a fixed number of event loops. A client who JOINs is paired
+ * with whoever has waited longest on any loop, and plays a bot if nobody
+ * joins within five seconds. Given Checkpoints, every table is saved after
+ * every move until its game ends. Saves left by an earlier run are dropped
+ * at startup: their clients have gone, so their slots are released for new
+ * tables. Every finished game is recorded on one Leaderboard shared by all
+ * the loops.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class GameServer implements Closeable {
+
+    /**
+     * Tables main() can checkpoint at once
+     */
+    private final static int CHECKPOINT_SLOTS = 1 << 14;
+
+    private final ServerSocketChannel server;
+
+    private final EventLoop[] loops;
+
+    private final Thread[] threads;
+
+    private final Thread acceptor;
+
+    private final GameMetrics metrics = new GameMetrics();
+
+    private final Leaderboard leaderboard = new Leaderboard();
+
+    private int next;
+
+    /**
+     * Constructor. Starts serving straight away.
+     *
+     * @param address Address to listen on
+     * @param loopCount Number of event loop threads
+     * @throws IOException If the address cannot be bound
+     */
+    public GameServer(InetSocketAddress address, int loopCount) throws IOException {
+        this(address, loopCount, null);
+    }
+
+    /**
+     * Constructor for a server that checkpoints its tables. Releases any
+     * slots still holding a game, then starts serving straight away.
+     *
+     * @param address Address to listen on
+     * @param loopCount Number of event loop threads
+     * @param checkpoints Where to save tables, null for nowhere
+     * @throws IOException If the address cannot be bound
+     */
+    public GameServer(InetSocketAddress address, int loopCount, Checkpoints checkpoints) throws IOException {
+        server = ServerSocketChannel.open();
+        server.bind(address, 4096);
+        if (checkpoints != null) {
+            for (int slot : checkpoints.getSaved()) {
+                checkpoints.release(slot);
+            }
+        }
+        SplittableRandom random = new SplittableRandom();
+        ConcurrentLinkedQueue<Connection> lobby = new ConcurrentLinkedQueue<>();
+        loops = new EventLoop[loopCount];
+        threads = new Thread[loopCount];
+        for (int index = 0; index < loopCount; index++) {
+            loops[index] = new EventLoop(random.split(), metrics, checkpoints, leaderboard, lobby);
+            threads[index] = new Thread(loops[index], "crazy8s-loop-" + index);
+            threads[index].start();
+        }
+        acceptor = new Thread(this::accept, "crazy8s-accept");
+        acceptor.start();
+    }
+
+    /**
+     * Accepts connections until the server is closed
+     */
+    private void accept() {
+        try {
+            while (true) {
+                SocketChannel channel = server.accept();
+                channel.socket().setTcpNoDelay(true);
+                loops[next].add(channel);
+                next = (next + 1) % loops.length;
+            }
+        } catch (IOException e) {
+            // The server socket was closed
+        }
+    }
+
+    /**
+     * Gets the port the server listens on
+     *
+     * @return Local port
+     * @throws IOException If the socket is closed
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Gets the metrics of every table the server has hosted. Command
+     * latencies of remote players include the round trip to the client.
+     *
+     * @return metrics Metrics
+     */
+    public GameMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the leaderboard of every game the server has hosted
+     *
+     * @return leaderboard Leaderboard
+     */
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    /**
+     * Stops accepting and closes every connection
+     *
+     * @throws IOException If the server socket will not close
+     */
+    @Override
+    public void close() throws IOException {
+        server.close();
+        for (EventLoop loop : loops) {
+            loop.stop();
+        }
+        try {
+            acceptor.join();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs a server
+     *
+     * @param args Port, default 8888; number of event loops, default one per
+     * processor; seconds between reports of the metrics and the top ten
+     * players, default 60; checkpoint file, default none
+     * @throws IOException If the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8888;
+        int loopCount = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int interval = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        Checkpoints checkpoints = null;
+        if (args.length > 3) {
+            checkpoints = new Checkpoints(Path.of(args[3]), CHECKPOINT_SLOTS);
+            System.out.println(checkpoints.getSaved().length + " unfinished games in " + args[3] + " dropped");
+        }
+        GameServer server = new GameServer(new InetSocketAddress(port), loopCount, checkpoints);
+        System.out.println("Crazy 8s server listening on port " + server.getPort());
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "crazy8s-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> {
+            System.out.print(server.getMetrics().snapshot());
+            for (Standing standing : server.getLeaderboard().top(10)) {
+                System.out.println(standing);
+            }
+        }, interval, interval, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,215 @@
+package crazy8s.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Load generator for GameServer. Opens many connections from one thread and
+ * has each play SOLO games back to back, playing the first legal card, then
+ * reports moves per second and the time from sending a move to the next
+ * prompt.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class LoadClient {
+
+    private final static int SAMPLES = 1 << 20;
+
+    private final long[] latencies = new long[SAMPLES];
+
+    private long moves;
+
+    private long games;
+
+    /**
+     * State of one simulated client
+     */
+    private static class Client {
+
+        final SocketChannel channel;
+
+        final ByteBuffer in = ByteBuffer.allocate(4096);
+
+        final StringBuilder line = new StringBuilder();
+
+        long sent;
+
+        Client(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * Plays games against a server for a while
+     *
+     * @param address Server address
+     * @param clients Number of connections
+     * @param millis How long to play
+     * @throws IOException If the server cannot be reached
+     */
+    public void run(InetSocketAddress address, int clients, long millis) throws IOException {
+        try (Selector selector = Selector.open()) {
+            for (int index = 0; index < clients; index++) {
+                SocketChannel channel = SocketChannel.open(address);
+                channel.socket().setTcpNoDelay(true);
+                channel.configureBlocking(false);
+                Client client = new Client(channel);
+                channel.register(selector, SelectionKey.OP_READ, client);
+                send(client, "SOLO");
+            }
+            long start = System.nanoTime();
+            long end = start + millis * 1000000L;
+            while (System.nanoTime() < end) {
+                selector.select(100);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    read((Client) key.attachment());
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            report(clients, elapsed);
+        }
+    }
+
+    /**
+     * Reads a client's socket and answers every complete line
+     *
+     * @param client Client
+     * @throws IOException If the read fails
+     */
+    private void read(Client client) throws IOException {
+        if (client.channel.read(client.in) < 0) {
+            throw new IOException("server closed the connection");
+        }
+        client.in.flip();
+        while (client.in.hasRemaining()) {
+            char c = (char) client.in.get();
+            if (c == '\n') {
+                handle(client, client.line.toString());
+                client.line.setLength(0);
+            } else {
+                client.line.append(c);
+            }
+        }
+        client.in.clear();
+    }
+
+    /**
+     * Answers one line from the server
+     *
+     * @param client Client that received it
+     * @param message Line without the line break
+     * @throws IOException If the answer cannot be sent
+     */
+    private void handle(Client client, String message) throws IOException {
+        if (message.startsWith("TURN ")) {
+            record(client);
+            send(client, move(message));
+        } else if (message.startsWith("OVER ")) {
+            record(client);
+            games++;
+            send(client, "SOLO");
+        } else if (message.startsWith("ERROR ")) {
+            throw new IOException(message);
+        }
+    }
+
+    /**
+     * Records the time since the client's last move
+     *
+     * @param client Client that was answered
+     */
+    private void record(Client client) {
+        if (client.sent != 0) {
+            latencies[(int) (moves % SAMPLES)] = System.nanoTime() - client.sent;
+            moves++;
+            client.sent = 0;
+        }
+    }
+
+    /**
+     * Picks the first legal card of a prompt, or draws
+     *
+     * @param turn TURN line
+     * @return PLAY or DRAW line
+     */
+    private static String move(String turn) {
+        String[] words = turn.split(" ");
+        int top = Integer.parseInt(words[1]);
+        int suit = Integer.parseInt(words[2]);
+        for (int index = 3; index < words.length; index++) {
+            int card = Integer.parseInt(words[index]);
+            int rank = card % 13 + 1;
+            if (rank == 8) {
+                return "PLAY " + (index - 3) + " " + (card / 13 + 1);
+            }
+            if (rank == top % 13 + 1 || card / 13 + 1 == suit) {
+                return "PLAY " + (index - 3);
+            }
+        }
+        return "DRAW";
+    }
+
+    /**
+     * Sends a line, blocking until the socket takes it
+     *
+     * @param client Client
+     * @param message Line without the line break
+     * @throws IOException If the write fails
+     */
+    private void send(Client client, String message) throws IOException {
+        if (!message.equals("SOLO")) {
+            client.sent = System.nanoTime();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap((message + "\n").getBytes(StandardCharsets.US_ASCII));
+        while (buffer.hasRemaining()) {
+            client.channel.write(buffer);
+        }
+    }
+
+    /**
+     * Prints throughput and latency percentiles
+     *
+     * @param clients Number of connections
+     * @param elapsed Nanoseconds played
+     */
+    private void report(int clients, long elapsed) {
+        int count = (int) Math.min(moves, SAMPLES);
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        System.out.println("Clients: " + clients);
+        System.out.println("Games: " + games);
+        System.out.printf("Moves/s: %.0f%n", moves * 1e9 / elapsed);
+        if (count > 0) {
+            System.out.printf("p50: %.1f us%n", sorted[count / 2] / 1e3);
+            System.out.printf("p99: %.1f us%n", sorted[(int) (count * 0.99)] / 1e3);
+        }
+    }
+
+    /**
+     * Runs the load client
+     *
+     * @param args Host, default localhost; port, default 8888; connections,
+     * default 1000; seconds, default 10
+     * @throws IOException If the server cannot be reached
+     */
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8888;
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        new LoadClient().run(new InetSocketAddress(host, port), clients, seconds * 1000L);
+    }
+}
@@ -0,0 +1,243 @@
+package crazy8s.net;
+
+import crazy8s.card.Card;
+import crazy8s.card.Hand;
+import crazy8s.player.AsyncPlayer;
+import crazy8s.player.Command;
+import crazy8s.player.HandSizes;
+import crazy8s.player.IPlayer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A seat played by a client over the network. A request for a command
+ * prompts the client and completes when their answer arrives; the suit of an
+ * 8 comes with the card. Everything the player is allowed to see is sent to
+ * the client.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class RemotePlayer implements IPlayer, AsyncPlayer {
+
+    private final Hand myhand = new Hand();
+
+    private final Connection connection;
+
+    private Table table;
+
+    private CompletableFuture<Integer> pending;
+
+    private int suit;
+
+    private final HandSizes handSizes = new HandSizes();
+
+    private int score;
+
+    /**
+     * Constructor
+     *
+     * @param connection Connection to the client
+     */
+    RemotePlayer(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Seats me at a table
+     *
+     * @param table Table I play at
+     */
+    void seat(Table table) {
+        this.table = table;
+    }
+
+    /**
+     * Gets the table I play at
+     *
+     * @return table Table
+     */
+    Table getTable() {
+        return table;
+    }
+
+    /**
+     * Answers the table's request with the command the client sent
+     *
+     * @param command Encoded command
+     * @param suit Suit declared with an 8, otherwise 0
+     * @return false if the table was not waiting for the client
+     */
+    boolean receive(int command, int suit) {
+        if (pending == null) {
+            return false;
+        }
+        CompletableFuture<Integer> request = pending;
+        pending = null;
+        this.suit = suit;
+        request.complete(command);
+        return true;
+    }
+
+    /**
+     * Withdraws the table's request, which the table then asks of whoever
+     * holds the seat
+     */
+    void cancel() {
+        if (pending != null) {
+            CompletableFuture<Integer> request = pending;
+            pending = null;
+            request.cancel(false);
+        }
+    }
+
+    /**
+     * Prompts the client to move
+     *
+     * @return Future of the command they send
+     */
+    @Override
+    public CompletableFuture<Integer> requestCommand() {
+        pending = new CompletableFuture<>();
+        table.prompt(this);
+        return pending;
+    }
+
+    /**
+     * Gets the suit the client sent along with their 8
+     *
+     * @return Completed future of the suit
+     */
+    @Override
+    public CompletableFuture<Integer> requestSuit() {
+        return CompletableFuture.completedFuture(suit);
+    }
+
+    /**
+     * Gets the connection to the client
+     *
+     * @return connection Connection
+     */
+    Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Remote players only move through requestCommand()
+     *
+     * @return NO_COMMAND
+     */
+    @Override
+    public int getCommand() {
+        return Command.NO_COMMAND;
+    }
+
+    /**
+     * Gets the player's hand
+     *
+     * @return myhand
+     */
+    @Override
+    public ArrayList<Card> getHand() {
+        return myhand;
+    }
+
+    /**
+     * Tells the client who played what
+     *
+     * @param player Player who played this card
+     * @param card Card played by the player
+     */
+    @Override
+    public void played(IPlayer player, Card card) {
+        handSizes.played(player);
+        connection.send("PLAYED " + table.seatOf(player) + " " + card.getIndex());
+    }
+
+    /**
+     * Tells the client who drew, and which card if it was them
+     *
+     * @param player Player who drew this card
+     * @param card Card that was drawn
+     */
+    @Override
+    public void drew(IPlayer player, Card card) {
+        handSizes.drew(player);
+        if (player != this) {
+            connection.send("DREW " + table.seatOf(player));
+        } else {
+            connection.send("DREW " + table.seatOf(player) + " " + card.getIndex());
+        }
+    }
+
+    /**
+     * Gets the suit the client sent along with their 8
+     *
+     * @return Encoded suit
+     */
+    @Override
+    public int getSuit() {
+        return suit;
+    }
+
+    /**
+     * Tells the client the suit declared after an 8
+     *
+     * @param suit Declared suit
+     */
+    @Override
+    public void setSuit(int suit) {
+        connection.send("SUIT " + suit);
+    }
+
+    /**
+     * Gets the player's score
+     *
+     * @return score The player's score
+     */
+    @Override
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Sets the player's score
+     *
+     * @param score Score to be set to
+     */
+    @Override
+    public void setScore(int score) {
+        this.score = score;
+    }
+
+    /**
+     * Gets the hand size of the opposing player
+     *
+     * @return Number of cards in the next player's hand
+     */
+    @Override
+    public int getOPHS() {
+        return handSizes.next(this);
+    }
+
+    /**
+     * Starts tracking the hand size of every player at the table
+     *
+     * @param players Players at the table
+     * @param decks Number of decks in the shoe
+     */
+    @Override
+    public void seated(List<IPlayer> players, int decks) {
+        handSizes.seat(players);
+    }
+
+    /**
+     * Converts me to a string
+     *
+     * @return "REMOTE"
+     */
+    @Override
+    public String toString() {
+        return "REMOTE";
+    }
+}
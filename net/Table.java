@@ -0,0 +1,217 @@
+package crazy8s.net;
+
+import crazy8s.Game;
+import crazy8s.GameResult;
+import crazy8s.card.Card;
+import crazy8s.card.Rules;
+import crazy8s.log.Checkpoints;
+import crazy8s.player.AsyncPlayer;
+import crazy8s.player.Command;
+import crazy8s.player.IPlayer;
+import crazy8s.player.Opponent;
+import crazy8s.rating.Leaderboard;
+import crazy8s.rating.Standing;
+import java.util.Collections;
+import java.util.random.RandomGenerator;
+
+/**
+ * A game hosted by the server. The table plays with playAsync(): bot turns
+ * run straight through, and when a remote player is to move the table
+ * returns to the event loop until the client's command resumes it.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class Table extends Game {
+
+    private Checkpoints checkpoints;
+
+    private int slot = -1;
+
+    private Leaderboard leaderboard;
+
+    private Standing[] standings;
+
+    /**
+     * Constructor
+     *
+     * @param random Random source for the seating and the deck
+     * @param players Remote players and bots
+     */
+    Table(RandomGenerator random, IPlayer... players) {
+        super(random, players);
+        setHeadless(true);
+        for (IPlayer player : players) {
+            if (player instanceof RemotePlayer) {
+                ((RemotePlayer) player).seat(this);
+            }
+        }
+    }
+
+    /**
+     * Gets the seat of a player
+     *
+     * @param player Player at this table
+     * @return Seat in turn order
+     */
+    int seatOf(IPlayer player) {
+        return players.indexOf(player);
+    }
+
+    /**
+     * Saves the table after every move
+     *
+     * @param checkpoints Where to save, null for nowhere
+     */
+    void setCheckpoints(Checkpoints checkpoints) {
+        this.checkpoints = checkpoints;
+    }
+
+    /**
+     * Records the game on a leaderboard when it ends. Remote players count
+     * under the name they gave, if any, and bots under their kind with a *
+     * in front, which clients cannot register. A player who leaves keeps
+     * their seat's result.
+     *
+     * @param leaderboard Where to record, null for nowhere
+     */
+    void setLeaderboard(Leaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+        if (leaderboard == null) {
+            standings = null;
+            return;
+        }
+        standings = new Standing[players.size()];
+        for (int seat = 0; seat < standings.length; seat++) {
+            IPlayer player = players.get(seat);
+            standings[seat] = player instanceof RemotePlayer ? ((RemotePlayer) player).getConnection().standing
+                    : leaderboard.register("*" + player);
+        }
+    }
+
+    /**
+     * Tells the clients their seats and starts the game. Everything runs on
+     * the event loop's thread: a client's command completes their request
+     * and the game carries on from there.
+     */
+    void start() {
+        for (IPlayer player : players) {
+            if (player instanceof RemotePlayer) {
+                ((RemotePlayer) player).getConnection().send("START " + seatOf(player) + " " + players.size());
+            }
+        }
+        if (checkpoints != null) {
+            slot = checkpoints.acquire();
+        }
+        playAsync(Runnable::run);
+    }
+
+    /**
+     * Hands a seat over to a bot when its player disconnects. If it was
+     * their turn, the bot moves at once. The other players look seats up in
+     * the table's list, so they go on counting the bot's cards as the seat's.
+     *
+     * @param remote Player who left
+     */
+    void leave(RemotePlayer remote) {
+        if (result.isDone()) {
+            return;
+        }
+        Opponent bot = new Opponent();
+        bot.getHand().addAll(remote.getHand());
+        bot.played(bot, deck.getDiscard());
+        bot.setSuit(deck.getDiscardSuit());
+        int index = seatOf(remote);
+        players.set(index, bot);
+        deciders[index] = AsyncPlayer.of(bot);
+        bot.seated(Collections.unmodifiableList(players), deck.getDecks());
+        remote.cancel();
+    }
+
+    /**
+     * Checks a command against the rules. A remote player must send a valid
+     * suit along with an 8.
+     *
+     * @param player Player to move
+     * @param command DRAW or index of the card to play
+     * @return true if the command is allowed
+     */
+    @Override
+    protected boolean isLegal(IPlayer player, int command) {
+        if (!super.isLegal(player, command)) {
+            return false;
+        }
+        if (player instanceof RemotePlayer && command != Command.DRAW
+                && player.getHand().get(command).getRank() == 8) {
+            return Rules.isSuit(player.getSuit());
+        }
+        return true;
+    }
+
+    /**
+     * Tells a remote player their move breaks the rules. They are then asked
+     * again.
+     *
+     * @param player Player who moved
+     * @param command DRAW or index of the card to play
+     */
+    @Override
+    protected void rejected(IPlayer player, int command) {
+        if (!(player instanceof RemotePlayer)) {
+            super.rejected(player, command);
+            return;
+        }
+        ((RemotePlayer) player).getConnection().send("ERROR illegal move");
+    }
+
+    /**
+     * Asks a remote player to move, sending what they need to decide
+     *
+     * @param remote Player to move
+     */
+    void prompt(RemotePlayer remote) {
+        StringBuilder message = new StringBuilder("TURN ");
+        message.append(deck.getDiscard().getIndex()).append(' ').append(deck.getDiscardSuit());
+        for (Card card : remote.getHand()) {
+            message.append(' ').append(card.getIndex());
+        }
+        remote.getConnection().send(message.toString());
+    }
+
+    /**
+     * Saves the table, if it has a checkpoint slot
+     */
+    @Override
+    protected void settled() {
+        if (slot != -1) {
+            checkpoints.save(slot, this);
+        }
+    }
+
+    /**
+     * Ends the game, tells the clients the result and records it on the
+     * leaderboard
+     *
+     * @param winner Player who went out, null if nobody won
+     * @param seat Seat of the winner, -1 if nobody won
+     * @param score Points earned by the winner
+     * @return Result of the game
+     */
+    @Override
+    protected GameResult finish(IPlayer winner, int seat, int score) {
+        for (IPlayer player : players) {
+            if (player instanceof RemotePlayer) {
+                Connection connection = ((RemotePlayer) player).getConnection();
+                connection.send("OVER " + seat + " " + score);
+                connection.player = null;
+            }
+        }
+        if (slot != -1) {
+            checkpoints.release(slot);
+            slot = -1;
+        }
+        if (leaderboard != null) {
+            leaderboard.record(standings, seat, score);
+        }
+        return super.finish(winner, seat, score);
+    }
+}
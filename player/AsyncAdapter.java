@@ -0,0 +1,86 @@
+package crazy8s.player;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Gives an ordinary player the asynchronous interface. Without an executor
+ * the player's answer is returned as an already completed future, a new one
+ * each time since whoever holds a future can change its value; with one,
+ * blocking calls such as reading the console run on the executor.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class AsyncAdapter implements AsyncPlayer {
+
+    /**
+     * Thread reading the console for every human player
+     */
+    final static ExecutorService CONSOLE = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "crazy8s-console");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final IPlayer player;
+
+    private final Executor executor;
+
+    /**
+     * Constructor for a player that answers straight away
+     *
+     * @param player Player
+     */
+    public AsyncAdapter(IPlayer player) {
+        this(player, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param player Player
+     * @param executor Executor for the player's calls, null to call them
+     * directly
+     */
+    public AsyncAdapter(IPlayer player, Executor executor) {
+        this.player = player;
+        this.executor = executor;
+    }
+
+    /**
+     * Asks the player for a command
+     *
+     * @return Future of the encoded command
+     */
+    @Override
+    public CompletableFuture<Integer> requestCommand() {
+        if (executor == null) {
+            return CompletableFuture.completedFuture(player.getCommand());
+        }
+        return CompletableFuture.supplyAsync(player::getCommand, executor);
+    }
+
+    /**
+     * Asks the player for the suit of their 8
+     *
+     * @return Future of the encoded suit
+     */
+    @Override
+    public CompletableFuture<Integer> requestSuit() {
+        if (executor == null) {
+            return CompletableFuture.completedFuture(player.getSuit());
+        }
+        return CompletableFuture.supplyAsync(player::getSuit, executor);
+    }
+
+    /**
+     * Gets the player I adapt
+     *
+     * @return player Player
+     */
+    public IPlayer getPlayer() {
+        return player;
+    }
+}
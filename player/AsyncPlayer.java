@@ -0,0 +1,47 @@
+package crazy8s.player;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking decisions of a player. A game asks for a command and carries
+ * on when the future completes, so a thread never waits on a slow or remote
+ * player and one thread can drive any number of tables.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public interface AsyncPlayer {
+
+    /**
+     * Asks the player for a command.
+     *
+     * @return Future of the encoded command
+     * @see IPlayer#getCommand()
+     */
+    public CompletableFuture<Integer> requestCommand();
+
+    /**
+     * Asks the player for the suit of the 8 they just played.
+     *
+     * @return Future of the encoded suit
+     * @see IPlayer#getSuit()
+     */
+    public CompletableFuture<Integer> requestSuit();
+
+    /**
+     * Gets the asynchronous decisions of a player. Players that implement
+     * this interface are returned as they are, humans read the console on a
+     * thread of their own and every other player answers straight away.
+     *
+     * @param player Player
+     * @return Asynchronous view of the player
+     */
+    public static AsyncPlayer of(IPlayer player) {
+        if (player instanceof AsyncPlayer) {
+            return (AsyncPlayer) player;
+        }
+        if (player instanceof Human) {
+            return new AsyncAdapter(player, AsyncAdapter.CONSOLE);
+        }
+        return new AsyncAdapter(player);
+    }
+}
@@ -0,0 +1,112 @@
+package crazy8s.player;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hand size of every player at the table, as seen by one player from plays
+ * and draws. Players move in turn, so the seat of the player reported next is
+ * found by checking the last seat reported and then the one after it; updates
+ * take constant time however many players there are.
+ *
+ * Sizes are kept by seat and players are looked up in the table's own list,
+ * not a copy, so when a player hands their seat to another mid-game, as a
+ * server does when a client leaves, the newcomer takes over the seat's size.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class HandSizes {
+
+    private List<IPlayer> players = Collections.emptyList();
+
+    private int[] sizes = new int[0];
+
+    private int last;
+
+    /**
+     * Starts tracking a table from the hands as dealt
+     *
+     * @param players Players in turn order, as seated() reports them
+     */
+    public void seat(List<IPlayer> players) {
+        this.players = players;
+        sizes = new int[players.size()];
+        for (int seat = 0; seat < sizes.length; seat++) {
+            sizes[seat] = players.get(seat).getHand().size();
+        }
+        last = sizes.length - 1;
+    }
+
+    /**
+     * Reports a card played
+     *
+     * @param player Player who played it
+     */
+    public void played(IPlayer player) {
+        int seat = seatOf(player);
+        if (seat != -1) {
+            sizes[seat]--;
+        }
+    }
+
+    /**
+     * Reports a card drawn
+     *
+     * @param player Player who drew it
+     */
+    public void drew(IPlayer player) {
+        int seat = seatOf(player);
+        if (seat != -1) {
+            sizes[seat]++;
+        }
+    }
+
+    /**
+     * Finds a player's seat
+     *
+     * @param player Player at the table
+     * @return Seat in turn order, -1 if they are not seated
+     */
+    public int seatOf(IPlayer player) {
+        for (int step = 0; step < sizes.length; step++) {
+            int seat = (last + step) % sizes.length;
+            if (players.get(seat) == player) {
+                last = seat;
+                return seat;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the hand size of a seat
+     *
+     * @param seat Seat in turn order
+     * @return Number of cards in that player's hand
+     */
+    public int get(int seat) {
+        return sizes[seat];
+    }
+
+    /**
+     * Gets the hand size of the player after me in turn order
+     *
+     * @param me Player asking
+     * @return Number of cards in the next player's hand, 8 before the deal
+     */
+    public int next(IPlayer me) {
+        if (sizes.length == 0) {
+            return 8;
+        }
+        return sizes[(seatOf(me) + 1) % sizes.length];
+    }
+
+    /**
+     * Gets the number of players at the table
+     *
+     * @return Number of seats
+     */
+    public int getPlayers() {
+        return sizes.length;
+    }
+}
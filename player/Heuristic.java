@@ -0,0 +1,150 @@
+package crazy8s.player;
+
+import java.util.Arrays;
+
+/**
+ * Weights of the features a HeuristicOpponent scores its choices by. The
+ * first weights score each card that can be played, the rest score each
+ * suit that can be named with an 8. Features are scaled to about 0 to 1, so
+ * weights of a size are worth about the same. A Heuristic never changes,
+ * so one can be shared by any number of players and threads.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public final class Heuristic {
+
+    /**
+     * The card matches the rank of the discard card
+     */
+    public final static int RANK = 0;
+
+    /**
+     * The card follows suit without matching the rank
+     */
+    public final static int SUIT = 1;
+
+    /**
+     * The card is an 8
+     */
+    public final static int EIGHT = 2;
+
+    /**
+     * Points the card would score for the winner, over 50
+     */
+    public final static int POINTS = 3;
+
+    /**
+     * Other cards of the suit the card leaves to follow, over 13
+     */
+    public final static int KEEP = 4;
+
+    /**
+     * The card is an 8 and the next player is down to one or two cards
+     */
+    public final static int BLOCK = 5;
+
+    /**
+     * Cards of the suit, over 13, when naming a suit
+     */
+    public final static int COUNT = 6;
+
+    /**
+     * Points of the suit's cards, over 50, when naming a suit
+     */
+    public final static int VALUE = 7;
+
+    /**
+     * An opponent drew rather than follow the suit, when naming a suit
+     */
+    public final static int SHORT = 8;
+
+    /**
+     * Number of weights
+     */
+    public final static int SIZE = 9;
+
+    /**
+     * Names of the weights, in order
+     */
+    public final static String[] NAMES = {"rank", "suit", "eight", "points", "keep", "block", "count", "value",
+        "short"};
+
+    /**
+     * Weights that play exactly like Opponent: a rank match first, then a
+     * card of the suit, then an 8, and name the longest suit
+     */
+    public final static Heuristic DEFAULT = new Heuristic(4, 2, 1, 0, 0, 0, 1, 0, 0);
+
+    private final double[] weights;
+
+    /**
+     * Constructor
+     *
+     * @param weights One weight per feature, in the order of the feature
+     * numbers
+     * @throws IllegalArgumentException If there are not SIZE weights
+     */
+    public Heuristic(double... weights) {
+        if (weights.length != SIZE) {
+            throw new IllegalArgumentException("a heuristic has " + SIZE + " weights");
+        }
+        this.weights = weights.clone();
+    }
+
+    /**
+     * Gets a weight
+     *
+     * @param feature Feature number
+     * @return Weight of the feature
+     */
+    public double get(int feature) {
+        return weights[feature];
+    }
+
+    /**
+     * Gets the weights
+     *
+     * @return Copy of the weights in order
+     */
+    public double[] toArray() {
+        return weights.clone();
+    }
+
+    /**
+     * Checks whether another heuristic has the same weights
+     *
+     * @param other Object to compare
+     * @return true if the weights are equal
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Heuristic && Arrays.equals(weights, ((Heuristic) other).weights);
+    }
+
+    /**
+     * Gets a hash code of the weights
+     *
+     * @return Hash code
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(weights);
+    }
+
+    /**
+     * Converts me to a string
+     *
+     * @return Names and weights
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int index = 0; index < SIZE; index++) {
+            if (index > 0) {
+                s.append(' ');
+            }
+            s.append(NAMES[index]).append('=').append(String.format("%.3f", weights[index]));
+        }
+        return s.toString();
+    }
+}
@@ -0,0 +1,165 @@
+package crazy8s.player;
+
+import crazy8s.card.Card;
+import crazy8s.card.Cards;
+import crazy8s.card.Rules;
+import java.util.List;
+
+/**
+ * An opponent that scores every card it may play, and every suit it may
+ * name with an 8, by a weighted sum of features, and picks the highest.
+ * Ties go to the lowest card, as with Opponent. With Heuristic.DEFAULT it
+ * plays exactly like Opponent; other weights come from a Tuner.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class HeuristicOpponent extends Opponent {
+
+    private final Heuristic heuristic;
+
+    private int shortSuits;
+
+    /**
+     * Constructor with the weights that play like Opponent
+     */
+    public HeuristicOpponent() {
+        this(Heuristic.DEFAULT);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param heuristic Weights of the features
+     */
+    public HeuristicOpponent(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * Plays the legal card with the highest score, or draws if none
+     *
+     * @return Integer representing command, or index of card to play
+     */
+    @Override
+    public int getCommand() {
+        long hand = myhand.getMask();
+        long legal = Rules.legalMoves(discarded.getRank(), suit, hand);
+        if (legal == 0) {
+            return Command.DRAW;
+        }
+        long others = hand & ~Cards.EIGHTS;
+        boolean block = getOPHS() <= 2;
+        int best = -1;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (; legal != 0; legal &= legal - 1) {
+            int card = Long.numberOfTrailingZeros(legal);
+            double score = score(card, others, block);
+            if (score > bestScore) {
+                bestScore = score;
+                best = card;
+            }
+        }
+        return myhand.indexOf(best);
+    }
+
+    /**
+     * Scores a legal card
+     *
+     * @param card Card index
+     * @param others Mask of the cards in hand other than 8s
+     * @param block true if the next player has one or two cards
+     * @return Weighted sum of the card's features
+     */
+    private double score(int card, long others, boolean block) {
+        int rank = Cards.rank(card);
+        double score = heuristic.get(Heuristic.POINTS) * Cards.points(Cards.bit(card)) / 50;
+        if (rank == 8) {
+            long kept = others & Cards.SUIT_MASKS[chooseSuit()];
+            score += heuristic.get(Heuristic.EIGHT)
+                    + heuristic.get(Heuristic.KEEP) * Long.bitCount(kept) / 13;
+            if (block) {
+                score += heuristic.get(Heuristic.BLOCK);
+            }
+            return score;
+        }
+        score += heuristic.get(rank == discarded.getRank() ? Heuristic.RANK : Heuristic.SUIT);
+        long kept = others & Cards.SUIT_MASKS[Cards.suit(card)] & ~Cards.bit(card);
+        return score + heuristic.get(Heuristic.KEEP) * Long.bitCount(kept) / 13;
+    }
+
+    /**
+     * Names the suit with the highest score
+     *
+     * @return Integer representing chosen suit
+     */
+    @Override
+    protected int chooseSuit() {
+        long others = myhand.getMask() & ~Cards.EIGHTS;
+        int best = Card.CLUBS;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int suit = Card.CLUBS; suit <= Card.SPADES; suit++) {
+            long cards = others & Cards.SUIT_MASKS[suit];
+            double score = heuristic.get(Heuristic.COUNT) * Long.bitCount(cards) / 13
+                    + heuristic.get(Heuristic.VALUE) * Cards.points(cards) / 50;
+            if ((shortSuits & 1 << suit) != 0) {
+                score += heuristic.get(Heuristic.SHORT);
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                best = suit;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Reports who just played what. An opponent who follows a suit is no
+     * longer short of it.
+     *
+     * @param player Player that played a card
+     * @param card Card that was played
+     */
+    @Override
+    public void played(IPlayer player, Card card) {
+        super.played(player, card);
+        if (player != this && card.getRank() != 8) {
+            shortSuits &= ~(1 << card.getSuit());
+        }
+    }
+
+    /**
+     * Reports who drew what. An opponent who draws is short of the suit to
+     * follow.
+     *
+     * @param player Player who drew
+     * @param card Card that was drawn
+     */
+    @Override
+    public void drew(IPlayer player, Card card) {
+        super.drew(player, card);
+        if (player != this) {
+            shortSuits |= 1 << suit;
+        }
+    }
+
+    /**
+     * Starts tracking a new table
+     *
+     * @param players Players at the table
+     * @param decks Number of decks in the shoe
+     */
+    @Override
+    public void seated(List<IPlayer> players, int decks) {
+        super.seated(players, decks);
+        shortSuits = 0;
+    }
+
+    /**
+     * Gets the weights I play by
+     *
+     * @return heuristic Weights
+     */
+    public Heuristic getHeuristic() {
+        return heuristic;
+    }
+}
@@ -1,9 +1,12 @@
 package crazy8s.player;
 
 import crazy8s.card.Card;
+import crazy8s.card.Rules;
+import crazy8s.card.Hand;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This class implements a human player.
@@ -12,25 +15,24 @@ import java.util.ArrayList;
  */
 public class Human implements IPlayer {
 
-    private static int score;
+    private int score;
 
     int suit;
 
-    ArrayList<Card> myhand;
+    Hand myhand;
 
     BufferedReader br;
 
     private Card discarded;
 
-    private int otherPlayerHandSize;
+    private final HandSizes handSizes = new HandSizes();
 
     /**
      * Constructor
      */
     public Human() {
-        otherPlayerHandSize = 8;
         try {
-            myhand = new ArrayList<>();
+            myhand = new Hand();
 
             br = new BufferedReader(new InputStreamReader(System.in));
         } catch (Exception e) {
@@ -123,14 +125,7 @@ public class Human implements IPlayer {
      * @return 0 if the user has a valid play, 1 if they do not
      */
     protected int validateDraw() {
-
-        if (searchRank(discarded.getRank()) != -1) {
-            return 0;
-        }
-        if (searchSuit(discarded.getSuit()) != -1) {
-            return 0;
-        }
-        if (search8s() != -1) {
+        if (Rules.canPlay(discarded.getRank(), suit, myhand.getMask())) {
             return 0;
         }
         return 1;
@@ -144,63 +139,12 @@ public class Human implements IPlayer {
      * @return 0 if the play is not valid, 1 if the play is valid
      */
     protected int validatePlay(Card card) {
-        if (card.getRank() != 8) {
-            if (card.getRank() != discarded.getRank() && card.getSuit() != discarded.getSuit()) {
-                return 0;
-            }
+        if (!Rules.isLegal(discarded.getRank(), suit, card.getIndex())) {
+            return 0;
         }
         return 1;
     }
 
-    /**
-     * Searches for cards of a particular suit in the player's hand
-     *
-     * @param suit Suit to search for
-     * @return Index of card in hand if it has the suit, -1 if no cards have the
-     * suit
-     */
-    protected int searchSuit(int suit) {
-        for (int index = 0; index < myhand.size(); index++) {
-            Card card = myhand.get(index);
-            if (suit == card.getSuit() && card.getRank() != 8) {
-                return index;
-            }
-        }
-        return -1;
-    }
-
-    /**
-     * Searches for cards of a particular rank in the player's hand
-     *
-     * @param rank Rank to search for
-     * @return Index of card in hand if it has the rank, -1 if no cards have the
-     * rank
-     */
-    protected int searchRank(int rank) {
-        for (int index = 0; index < myhand.size(); index++) {
-            Card card = myhand.get(index);
-            if (rank == card.getRank() && card.getRank() != 8) {
-                return index;
-            }
-        }
-        return -1;
-    }
-
-    /**
-     * Searches for 8s in the player's hand
-     *
-     * @return Index of card in hand if it is an 8, -1 if there are no 8s
-     */
-    protected int search8s() {
-        for (int index = 0; index < myhand.size(); index++) {
-            Card card = myhand.get(index);
-            if (card.getRank() == 8) {
-                return index;
-            }
-        }
-        return -1;
-    }
-
     /**
      * Encode the user's string input (c, d, h, or s) when choosing a suit after
      * playing an 8, converting it to an integer defined in the Card class
@@ -239,7 +183,7 @@ public class Human implements IPlayer {
     }
 
     /**
-     * Reports who just played what and decrease OPHS if necessary
+     * Reports who just played what and updates their hand size
      *
      * @param player Play who played this card.
      * @param card Card played by the player.
@@ -247,24 +191,19 @@ public class Human implements IPlayer {
     @Override
     public void played(IPlayer player, Card card) {
         this.discarded = card;
-        // Did the other player play a card?
-        if (player != this) {
-            this.otherPlayerHandSize--;
-        }
+        this.suit = card.getSuit();
+        handSizes.played(player);
     }
 
     /**
-     * Reports who drew from deck and increases OPHS if necessary
+     * Reports who drew from deck and updates their hand size
      *
      * @param player Player who drew this card.
      * @param card Card that was drawn
      */
     @Override
     public void drew(IPlayer player, Card card) {
-        // Did the other player draw?
-        if (player != this) {
-            this.otherPlayerHandSize++;
-        }
+        handSizes.drew(player);
     }
 
     /**
@@ -336,11 +275,31 @@ public class Human implements IPlayer {
     /**
      * Gets the hand size of the opposing player
      *
-     * @return otherPlayerHandSize Number of cards in opponent's hand
+     * @return Number of cards in the next player's hand
      */
     @Override
     public int getOPHS() {
-        return otherPlayerHandSize;
+        return handSizes.next(this);
+    }
+
+    /**
+     * Starts tracking the hand size of every player at the table
+     *
+     * @param players Players at the table
+     * @param decks Number of decks in the shoe
+     */
+    @Override
+    public void seated(List<IPlayer> players, int decks) {
+        handSizes.seat(players);
+    }
+
+    /**
+     * Gets the hand size of every player at the table
+     *
+     * @return handSizes Hand sizes by seat
+     */
+    public HandSizes getHandSizes() {
+        return handSizes;
     }
 
     /**
@@ -2,6 +2,7 @@ package crazy8s.player;
 
 import crazy8s.card.Card;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Interface for both human and computer player
@@ -11,13 +12,30 @@ import java.util.ArrayList;
 public interface IPlayer {
 
     /**
-     * Gets the other player's hand size
+     * Gets the other player's hand size. At a table of more than two, this is
+     * the player after me in turn order.
      *
      * @return An integer representing the number of cards in the other player's
      * hand
      */
     public int getOPHS();
 
+    /**
+     * Forgets the last game before another is dealt at the same table. The
+     * hand is emptied by the game and the score is kept.
+     */
+    public default void reset() {
+    }
+
+    /**
+     * Reports who sits at the table, in turn order, once the cards are dealt.
+     *
+     * @param players Players at the table, not to be modified
+     * @param decks Number of decks in the shoe
+     */
+    public default void seated(List<IPlayer> players, int decks) {
+    }
+
     /**
      * Gets a command from the player.
      *
@@ -33,7 +51,8 @@ public interface IPlayer {
     public ArrayList<Card> getHand();
 
     /**
-     * Reports who played what.
+     * Reports who played what. If it is an 8, setSuit() follows with the
+     * declared suit.
      *
      * @param player Player making this play.
      * @param card Card they played.
@@ -0,0 +1,166 @@
+package crazy8s.player;
+
+import crazy8s.ai.BeliefState;
+import crazy8s.ai.EndgameSolver;
+import crazy8s.ai.ISMCTS;
+import crazy8s.card.Card;
+import java.util.List;
+
+/**
+ * This class implements an opponent that searches with information set Monte
+ * Carlo tree search instead of following fixed rules, and switches to an
+ * exact endgame solver once few cards are left. The search models a heads-up
+ * game with one deck; at other tables the player falls back to the rules of
+ * Opponent.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class MCTSOpponent extends Opponent {
+
+    private final ISMCTS search;
+
+    private final EndgameSolver endgame;
+
+    private final BeliefState belief = new BeliefState(8);
+
+    private int chosenSuit;
+
+    private boolean headsUp = true;
+
+    /**
+     * Constructor for a player thinking 50 ms per move on every core, solving
+     * endgames of up to 10 cards in hand and 4 in the deck
+     */
+    public MCTSOpponent() {
+        this(new ISMCTS(50, 0, Runtime.getRuntime().availableProcessors()),
+                new EndgameSolver(10, 4, 50, 16));
+    }
+
+    /**
+     * Constructor for a player that never uses the endgame solver
+     *
+     * @param search Search with its own time, iteration and thread budget
+     */
+    public MCTSOpponent(ISMCTS search) {
+        this(search, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param search Search with its own time, iteration and thread budget
+     * @param endgame Solver for small endgames, null for none
+     */
+    public MCTSOpponent(ISMCTS search, EndgameSolver endgame) {
+        this.search = search;
+        this.endgame = endgame;
+    }
+
+    /**
+     * Searches for the best play
+     *
+     * @return Integer representing command, or index of card to play
+     */
+    @Override
+    public int getCommand() {
+        if (!headsUp) {
+            return super.getCommand();
+        }
+        long hand = myhand.getMask();
+        int move;
+        if (endgame != null && endgame.covers(hand, belief)) {
+            move = endgame.search(hand, belief);
+        } else {
+            move = search.search(hand, belief);
+        }
+        if (move == ISMCTS.DRAW) {
+            return Command.DRAW;
+        }
+        chosenSuit = ISMCTS.suitOf(move);
+        return myhand.indexOf(ISMCTS.cardOf(move));
+    }
+
+    /**
+     * Checks whether the search can model the table, and starts the belief
+     * over from it. A game restored or a seat taken over mid-game is thus
+     * tracked from what can be seen, not from the last game's events.
+     *
+     * @param players Players at the table
+     * @param decks Number of decks in the shoe
+     */
+    @Override
+    public void seated(List<IPlayer> players, int decks) {
+        super.seated(players, decks);
+        headsUp = players.size() == 2 && decks == 1;
+        if (headsUp && discarded != null) {
+            belief.seat(myhand.getMask(), discarded.getIndex(), suit, getHandSizes().next(this));
+        }
+    }
+
+    /**
+     * Forgets the last game
+     */
+    @Override
+    public void reset() {
+        belief.clear();
+        chosenSuit = 0;
+    }
+
+    /**
+     * Reports who just played what
+     *
+     * @param player Player that played a card
+     * @param card Card that was played
+     */
+    @Override
+    public void played(IPlayer player, Card card) {
+        super.played(player, card);
+        belief.played(player == this, card.getIndex(), card.getSuit());
+    }
+
+    /**
+     * Reports the suit declared with an 8
+     *
+     * @param suit Declared suit
+     */
+    @Override
+    public void setSuit(int suit) {
+        super.setSuit(suit);
+        belief.declared(suit);
+    }
+
+    /**
+     * Reports who drew
+     *
+     * @param player Player who drew
+     * @param card Card that was drawn
+     */
+    @Override
+    public void drew(IPlayer player, Card card) {
+        super.drew(player, card);
+        belief.drew(player == this);
+    }
+
+    /**
+     * Gets the suit chosen by the search along with the 8
+     *
+     * @return Chosen suit
+     */
+    @Override
+    public int getSuit() {
+        if (!headsUp) {
+            return super.getSuit();
+        }
+        return chosenSuit != 0 ? chosenSuit : Card.CLUBS;
+    }
+
+    /**
+     * Converts me to a string
+     *
+     * @return "MCTS OPPONENT"
+     */
+    @Override
+    public String toString() {
+        return "MCTS OPPONENT";
+    }
+}
@@ -1,7 +1,11 @@
 package crazy8s.player;
 
 import crazy8s.card.Card;
+import crazy8s.card.Cards;
+import crazy8s.card.Hand;
+import crazy8s.card.Rules;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This class implements the opponent with AI.
@@ -10,21 +14,20 @@ import java.util.ArrayList;
  */
 public class Opponent implements IPlayer {
 
-    ArrayList<Card> myhand = new ArrayList<>();
+    Hand myhand = new Hand();
 
-    private Card discarded;
+    Card discarded;
 
-    private int suit8;
+    int suit;
 
-    private int otherPlayerHandSize;
+    private final HandSizes handSizes = new HandSizes();
 
-    private static int score;
+    private int score;
 
     /**
      * Constructor
      */
     public Opponent() {
-        otherPlayerHandSize = 8;
     }
 
     /**
@@ -34,14 +37,7 @@ public class Opponent implements IPlayer {
      * @return Index of card if found, -1 if no cards have the rank
      */
     protected int searchRank(int rank) {
-        for (int index = 0; index < myhand.size(); index++) {
-            Card card = myhand.get(index);
-            if (rank == card.getRank() && card.getRank() != 8) {
-                return index;
-            }
-        }
-        return -1;
-
+        return myhand.search(Rules.rankMatches(rank));
     }
 
     /**
@@ -51,13 +47,7 @@ public class Opponent implements IPlayer {
      * @return Index of card if found, -1 if no cards have the suit
      */
     protected int searchSuit(int suit) {
-        for (int index = 0; index < myhand.size(); index++) {
-            Card card = myhand.get(index);
-            if (suit == card.getSuit() && card.getRank() != 8) {
-                return index;
-            }
-        }
-        return -1;
+        return myhand.search(Rules.suitMatches(suit));
     }
 
     /**
@@ -66,13 +56,7 @@ public class Opponent implements IPlayer {
      * @return Index of the card if 8 found, -1 if no cards are 8s
      */
     protected int search8s() {
-        for (int index = 0; index < myhand.size(); index++) {
-            Card card = myhand.get(index);
-            if (card.getRank() == 8) {
-                return index;
-            }
-        }
-        return -1;
+        return myhand.search(Cards.EIGHTS);
     }
 
     /**
@@ -83,13 +67,9 @@ public class Opponent implements IPlayer {
     protected int chooseSuit() {
         // Part A. Count suits
         int[] counts = new int[5];
-        for (Card card : myhand) {
-            int suit = card.getSuit();
-            if (card.getRank() != 8) {
-                int count = counts[suit];
-                count++;
-                counts[suit] = count;
-            }
+        long cards = myhand.getMask() & ~Cards.EIGHTS;
+        for (int suit = Card.CLUBS; suit <= Card.SPADES; suit++) {
+            counts[suit] = Long.bitCount(cards & Cards.SUIT_MASKS[suit]);
         }
 
         // Part B. Find largest suit
@@ -116,22 +96,14 @@ public class Opponent implements IPlayer {
      */
     @Override
     public int getCommand() {
-        int suit = 0;
-
         if (discarded.getRank() != 8) {
             int index = searchRank(discarded.getRank());
             if (index != -1) {
                 return index;
             }
-        } else {
-            suit = suit8;
         }
 
         // If we get here, no rank matches
-        if (suit == 0) {
-            suit = discarded.getSuit();
-        }
-
         int index = searchSuit(suit);
         if (index != -1) {
             return index;
@@ -164,6 +136,8 @@ public class Opponent implements IPlayer {
     @Override
     public void played(IPlayer player, Card card) {
         this.discarded = card;
+        this.suit = card.getSuit();
+        handSizes.played(player);
     }
 
     /**
@@ -174,9 +148,7 @@ public class Opponent implements IPlayer {
      */
     @Override
     public void drew(IPlayer player, Card card) {
-        if (player != this) {
-            this.otherPlayerHandSize++;
-        }
+        handSizes.drew(player);
     }
 
     /**
@@ -192,11 +164,11 @@ public class Opponent implements IPlayer {
     /**
      * Sets internal suit knowledge
      *
-     * @param suit Suit of discard card
+     * @param suit Suit declared with the discard card
      */
     @Override
     public void setSuit(int suit) {
-        this.suit8 = suit;
+        this.suit = suit;
     }
 
     /**
@@ -232,10 +204,30 @@ public class Opponent implements IPlayer {
     /**
      * Gets the hand size of the opposing player
      *
-     * @return otherPlayerHandSize Number of cards in other player's hand
+     * @return Number of cards in the next player's hand
      */
     @Override
     public int getOPHS() {
-        return otherPlayerHandSize;
+        return handSizes.next(this);
+    }
+
+    /**
+     * Starts tracking the hand size of every player at the table
+     *
+     * @param players Players at the table
+     * @param decks Number of decks in the shoe
+     */
+    @Override
+    public void seated(List<IPlayer> players, int decks) {
+        handSizes.seat(players);
+    }
+
+    /**
+     * Gets the hand size of every player at the table
+     *
+     * @return handSizes Hand sizes by seat
+     */
+    public HandSizes getHandSizes() {
+        return handSizes;
     }
 }
@@ -0,0 +1,126 @@
+package crazy8s.rating;
+
+/**
+ * Elo ratings. After each batch a player moves by K times the score they
+ * made minus the score their rating predicted against each opponent.
+ *
+ * K is for one game, but a player's step over a batch is limited to
+ * MAX_STEP points divided among their games. A batch of many games then
+ * moves the ratings most of the way to the ratings that explain it, rather
+ * than past them.
+ *
+ * With a fixed K ratings keep following the latest results, which suits
+ * players who change. Given a horizon, a player's K falls in proportion to
+ * their games once they have played that many, so the ratings of fixed
+ * strategies converge.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class Elo extends RatingSystem {
+
+    /**
+     * K of games between established players
+     */
+    public final static double DEFAULT_K = 16;
+
+    /**
+     * Most rating points one game of a batch can be worth to a player,
+     * times their games in the batch
+     */
+    public final static double MAX_STEP = 400;
+
+    private final double k;
+
+    private final long horizon;
+
+    private final long[] games;
+
+    private final double[] change;
+
+    /**
+     * Constructor with the default K
+     *
+     * @param size Number of players, numbered from 0
+     */
+    public Elo(int size) {
+        this(size, DEFAULT_K);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param size Number of players, numbered from 0
+     * @param k Rating points a game is worth
+     */
+    public Elo(int size, double k) {
+        this(size, k, 0);
+    }
+
+    /**
+     * Constructor for ratings that converge
+     *
+     * @param size Number of players, numbered from 0
+     * @param k Rating points a game is worth to a new player
+     * @param horizon Games after which K starts to fall, 0 for never
+     */
+    public Elo(int size, double k, long horizon) {
+        super(size);
+        this.k = k;
+        this.horizon = horizon;
+        games = new long[size];
+        change = new double[size];
+    }
+
+    /**
+     * Moves the ratings by the results of a batch
+     *
+     * @param batch Results between my players
+     */
+    @Override
+    protected void rate(Outcomes batch) {
+        int size = ratings.length;
+        for (int a = 0; a < size; a++) {
+            long played = 0;
+            double surprise = 0;
+            for (int b = 0; b < size; b++) {
+                long count = batch.getGames(a, b);
+                if (count != 0) {
+                    played += count;
+                    surprise += batch.getScore(a, b) - count * expected(ratings[a], ratings[b]);
+                }
+            }
+            if (played == 0) {
+                change[a] = 0;
+                continue;
+            }
+            games[a] += played;
+            double factor = horizon == 0 || games[a] <= horizon ? k : k * horizon / games[a];
+            change[a] = Math.min(factor, MAX_STEP / played) * surprise;
+        }
+        for (int a = 0; a < size; a++) {
+            ratings[a] += change[a];
+        }
+    }
+
+    /**
+     * Gets the number of games a player has been rated on
+     *
+     * @param player Player number
+     * @return Number of games
+     */
+    public long getGames(int player) {
+        return games[player];
+    }
+
+    /**
+     * Gets the rating change of the winner of one game
+     *
+     * @param winner Rating of the winner
+     * @param loser Rating of the loser
+     * @param k Rating points a game is worth
+     * @return Points the winner gains and the loser loses
+     */
+    public static double change(double winner, double loser, double k) {
+        return k * (1 - expected(winner, loser));
+    }
+}
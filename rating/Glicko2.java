@@ -0,0 +1,209 @@
+package crazy8s.rating;
+
+import java.util.Arrays;
+
+/**
+ * Glicko-2 ratings, following Glickman's description of the system. Each
+ * batch is one rating period. Besides a rating, every player has a
+ * deviation, how unsure the rating is, and a volatility, how erratic their
+ * results are. The deviation shrinks as a player's games come in, so their
+ * rating settles, and grows again over periods they sit out.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class Glicko2 extends RatingSystem {
+
+    /**
+     * Deviation of a player who has not played
+     */
+    public final static double INITIAL_DEVIATION = 350;
+
+    /**
+     * Volatility of a player who has not played
+     */
+    public final static double INITIAL_VOLATILITY = 0.06;
+
+    /**
+     * Default tau, which limits how fast volatility changes
+     */
+    public final static double DEFAULT_TAU = 0.5;
+
+    /**
+     * Rating points per unit of the Glicko-2 scale
+     */
+    private final static double SCALE = 173.7178;
+
+    /**
+     * Accuracy of the volatility
+     */
+    private final static double EPSILON = 1e-6;
+
+    private final double tau;
+
+    private final double[] deviations;
+
+    private final double[] volatilities;
+
+    private final double[] mu;
+
+    private final double[] phi;
+
+    private final double[] g;
+
+    /**
+     * Constructor with the default tau
+     *
+     * @param size Number of players, numbered from 0
+     */
+    public Glicko2(int size) {
+        this(size, DEFAULT_TAU);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param size Number of players, numbered from 0
+     * @param tau Limit on volatility changes, usually 0.3 to 1.2
+     */
+    public Glicko2(int size, double tau) {
+        this(size, tau, INITIAL_VOLATILITY);
+    }
+
+    /**
+     * Constructor. Volatility sets how far a deviation grows again every
+     * period, and so how far it can shrink: a field of fixed strategies
+     * settles closer with a low volatility.
+     *
+     * @param size Number of players, numbered from 0
+     * @param tau Limit on volatility changes, usually 0.3 to 1.2
+     * @param volatility Volatility of a player who has not played
+     */
+    public Glicko2(int size, double tau, double volatility) {
+        super(size);
+        this.tau = tau;
+        deviations = new double[size];
+        volatilities = new double[size];
+        Arrays.fill(deviations, INITIAL_DEVIATION);
+        Arrays.fill(volatilities, volatility);
+        mu = new double[size];
+        phi = new double[size];
+        g = new double[size];
+    }
+
+    /**
+     * Rates a rating period
+     *
+     * @param batch Results between my players
+     */
+    @Override
+    protected void rate(Outcomes batch) {
+        int size = ratings.length;
+        for (int a = 0; a < size; a++) {
+            mu[a] = (ratings[a] - Standing.INITIAL_RATING) / SCALE;
+            phi[a] = deviations[a] / SCALE;
+            g[a] = 1 / Math.sqrt(1 + 3 * phi[a] * phi[a] / (Math.PI * Math.PI));
+        }
+        for (int a = 0; a < size; a++) {
+            double information = 0;
+            double surprise = 0;
+            for (int b = 0; b < size; b++) {
+                long count = batch.getGames(a, b);
+                if (count != 0) {
+                    double e = 1 / (1 + Math.exp(-g[b] * (mu[a] - mu[b])));
+                    information += count * g[b] * g[b] * e * (1 - e);
+                    surprise += g[b] * (batch.getScore(a, b) - count * e);
+                }
+            }
+            double volatility = volatilities[a];
+            if (information == 0) {
+                deviations[a] = Math.min(INITIAL_DEVIATION,
+                        SCALE * Math.sqrt(phi[a] * phi[a] + volatility * volatility));
+                continue;
+            }
+            double v = 1 / information;
+            volatility = volatility(phi[a], volatility, v, v * surprise);
+            double before = phi[a] * phi[a] + volatility * volatility;
+            double after = 1 / Math.sqrt(1 / before + information);
+            volatilities[a] = volatility;
+            deviations[a] = SCALE * after;
+            ratings[a] = Standing.INITIAL_RATING + SCALE * (mu[a] + after * after * surprise);
+        }
+    }
+
+    /**
+     * Finds a player's new volatility with the Illinois algorithm
+     *
+     * @param phi Deviation on the Glicko-2 scale
+     * @param sigma Volatility
+     * @param v Estimated variance of the rating from the period's games
+     * @param delta Estimated improvement in rating
+     * @return New volatility
+     */
+    private double volatility(double phi, double sigma, double v, double delta) {
+        double a = Math.log(sigma * sigma);
+        double phi2 = phi * phi;
+        double delta2 = delta * delta;
+        double low = a;
+        double high;
+        if (delta2 > phi2 + v) {
+            high = Math.log(delta2 - phi2 - v);
+        } else {
+            int k = 1;
+            while (f(a - k * tau, a, phi2, v, delta2) < 0) {
+                k++;
+            }
+            high = a - k * tau;
+        }
+        double fLow = f(low, a, phi2, v, delta2);
+        double fHigh = f(high, a, phi2, v, delta2);
+        while (Math.abs(high - low) > EPSILON) {
+            double next = low + (low - high) * fLow / (fHigh - fLow);
+            double fNext = f(next, a, phi2, v, delta2);
+            if (fNext * fHigh <= 0) {
+                low = high;
+                fLow = fHigh;
+            } else {
+                fLow /= 2;
+            }
+            high = next;
+            fHigh = fNext;
+        }
+        return Math.exp(low / 2);
+    }
+
+    /**
+     * Function whose root is the log of the squared new volatility
+     *
+     * @param x Candidate log of the squared volatility
+     * @param a Log of the squared old volatility
+     * @param phi2 Squared deviation on the Glicko-2 scale
+     * @param v Estimated variance of the rating
+     * @param delta2 Squared estimated improvement
+     * @return Value at x
+     */
+    private double f(double x, double a, double phi2, double v, double delta2) {
+        double ex = Math.exp(x);
+        double d = phi2 + v + ex;
+        return ex * (delta2 - phi2 - v - ex) / (2 * d * d) - (x - a) / (tau * tau);
+    }
+
+    /**
+     * Gets a player's rating deviation
+     *
+     * @param player Player number
+     * @return Deviation in rating points
+     */
+    public double getDeviation(int player) {
+        return deviations[player];
+    }
+
+    /**
+     * Gets a player's volatility
+     *
+     * @param player Player number
+     * @return Volatility
+     */
+    public double getVolatility(int player) {
+        return volatilities[player];
+    }
+}
@@ -0,0 +1,181 @@
+package crazy8s.rating;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Registry of named players and their totals, shared by every table of a
+ * server. Recording a game only adds to the players' adders, so tables
+ * finishing at the same moment, even with the same player seated at all of
+ * them, never wait on a lock. Registering a new name is the only step that
+ * locks, once per player.
+ *
+ * Top-K queries read the players from an array published after each
+ * registration and keep the best K in a small heap, without locking or
+ * sorting everyone. Totals read during a query are each exact at some
+ * moment, but not all at the same moment.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class Leaderboard {
+
+    /**
+     * Most players kept, so a client cannot make the server register names
+     * without end
+     */
+    public final static int MAX_PLAYERS = 1 << 20;
+
+    /**
+     * Best first: most points, then most wins, then registered first
+     */
+    public final static Comparator<Standing> BY_POINTS = Comparator.comparingLong(Standing::getPoints)
+            .thenComparingLong(Standing::getWins).reversed().thenComparingInt(Standing::getId);
+
+    /**
+     * Best first: highest rating, then registered first
+     */
+    public final static Comparator<Standing> BY_RATING = Comparator
+            .comparingDouble((ToDoubleFunction<Standing>) Standing::getRating).reversed()
+            .thenComparingInt(Standing::getId);
+
+    private final ConcurrentHashMap<String, Standing> byName = new ConcurrentHashMap<>();
+
+    private volatile Standing[] standings = new Standing[64];
+
+    private volatile int size;
+
+    /**
+     * Gets a player's standing, registering the name the first time
+     *
+     * @param name Player's name
+     * @return Standing shared by every table the player sits at
+     * @throws IllegalStateException If MAX_PLAYERS are registered
+     */
+    public Standing register(String name) {
+        Standing standing = byName.get(name);
+        return standing != null ? standing : byName.computeIfAbsent(name, this::add);
+    }
+
+    /**
+     * Adds a new player to the array read by queries. Called once per name,
+     * under the map's lock for that name.
+     *
+     * @param name Name that is not registered
+     * @return New standing
+     */
+    private synchronized Standing add(String name) {
+        if (size == MAX_PLAYERS) {
+            throw new IllegalStateException("leaderboard is full");
+        }
+        Standing standing = new Standing(size, name);
+        if (size == standings.length) {
+            standings = Arrays.copyOf(standings, 2 * size);
+        }
+        standings[size] = standing;
+        size = size + 1;
+        return standing;
+    }
+
+    /**
+     * Finds a registered player
+     *
+     * @param name Player's name
+     * @return Standing, null if the name is not registered
+     */
+    public Standing get(String name) {
+        return byName.get(name);
+    }
+
+    /**
+     * Gets the number of registered players
+     *
+     * @return size Number of players
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Records a finished game and moves the Elo ratings of the winner and
+     * every registered loser, as if the winner had beaten each in turn. Safe
+     * to call from any number of tables at once; a rating may then be read
+     * just before another table's change lands, which Elo absorbs.
+     *
+     * @param seats Standings of the players in seat order, null for players
+     * who are not registered
+     * @param winner Seat of the winner, -1 if nobody won
+     * @param points Points the winner earned
+     */
+    public void record(Standing[] seats, int winner, int points) {
+        for (int seat = 0; seat < seats.length; seat++) {
+            if (seats[seat] != null) {
+                seats[seat].record(seat == winner, points);
+            }
+        }
+        if (winner == -1 || seats[winner] == null) {
+            return;
+        }
+        Standing won = seats[winner];
+        double rating = won.getRating();
+        for (int seat = 0; seat < seats.length; seat++) {
+            if (seat != winner && seats[seat] != null && seats[seat] != won) {
+                double change = Elo.change(rating, seats[seat].getRating(), Elo.DEFAULT_K);
+                won.addRating(change);
+                seats[seat].addRating(-change);
+            }
+        }
+    }
+
+    /**
+     * Gets the players with the most points
+     *
+     * @param k Number of players wanted
+     * @return Up to k standings, best first
+     */
+    public Standing[] top(int k) {
+        return top(k, BY_POINTS);
+    }
+
+    /**
+     * Gets the highest rated players
+     *
+     * @param k Number of players wanted
+     * @return Up to k standings, best first
+     */
+    public Standing[] topRated(int k) {
+        return top(k, BY_RATING);
+    }
+
+    /**
+     * Gets the best players in any order, in O(n log k) time
+     *
+     * @param k Number of players wanted
+     * @param order Order putting the best first
+     * @return Up to k standings, best first
+     */
+    public Standing[] top(int k, Comparator<Standing> order) {
+        int count = size;
+        Standing[] all = standings;
+        if (k <= 0 || count == 0) {
+            return new Standing[0];
+        }
+        PriorityQueue<Standing> best = new PriorityQueue<>(Math.min(k, count) + 1, order.reversed());
+        for (int index = 0; index < count; index++) {
+            Standing standing = all[index];
+            if (best.size() < k) {
+                best.add(standing);
+            } else if (order.compare(standing, best.peek()) < 0) {
+                best.poll();
+                best.add(standing);
+            }
+        }
+        Standing[] top = new Standing[best.size()];
+        for (int index = top.length - 1; index >= 0; index--) {
+            top[index] = best.poll();
+        }
+        return top;
+    }
+}
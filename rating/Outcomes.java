@@ -0,0 +1,134 @@
+package crazy8s.rating;
+
+import java.util.Arrays;
+
+/**
+ * Results of a batch of games, kept as wins and draws between every pair of
+ * players. A batch costs the same memory however many games it holds, so
+ * results can stream into a RatingSystem without being stored. A game with
+ * more than two players counts as a win of the winner over each of the
+ * others, or a draw between every pair if nobody won.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class Outcomes {
+
+    final int size;
+
+    /**
+     * wins[a * size + b] is the number of times a beat b
+     */
+    final long[] wins;
+
+    /**
+     * draws[a * size + b] is the number of draws between a and b, kept in
+     * both orders
+     */
+    final long[] draws;
+
+    /**
+     * Constructor
+     *
+     * @param size Number of players, numbered from 0
+     */
+    public Outcomes(int size) {
+        this.size = size;
+        wins = new long[size * size];
+        draws = new long[size * size];
+    }
+
+    /**
+     * Records one game
+     *
+     * @param players Players at the table
+     * @param winner Index in players of the winner, -1 if nobody won
+     */
+    public void record(int[] players, int winner) {
+        if (winner == -1) {
+            for (int a = 0; a < players.length; a++) {
+                for (int b = a + 1; b < players.length; b++) {
+                    draw(players[a], players[b]);
+                }
+            }
+            return;
+        }
+        for (int index = 0; index < players.length; index++) {
+            if (index != winner) {
+                win(players[winner], players[index]);
+            }
+        }
+    }
+
+    /**
+     * Records a win
+     *
+     * @param winner Player who won
+     * @param loser Player who lost
+     */
+    public void win(int winner, int loser) {
+        wins[winner * size + loser]++;
+    }
+
+    /**
+     * Records a draw
+     *
+     * @param a One player
+     * @param b Other player
+     */
+    public void draw(int a, int b) {
+        draws[a * size + b]++;
+        draws[b * size + a]++;
+    }
+
+    /**
+     * Adds the results of another batch to mine
+     *
+     * @param other Batch of as many players
+     */
+    public void merge(Outcomes other) {
+        for (int index = 0; index < wins.length; index++) {
+            wins[index] += other.wins[index];
+            draws[index] += other.draws[index];
+        }
+    }
+
+    /**
+     * Forgets every result, ready for the next batch
+     */
+    public void clear() {
+        Arrays.fill(wins, 0);
+        Arrays.fill(draws, 0);
+    }
+
+    /**
+     * Gets the number of players
+     *
+     * @return size Number of players
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of results between two players
+     *
+     * @param a One player
+     * @param b Other player
+     * @return Wins, losses and draws of a against b
+     */
+    public long getGames(int a, int b) {
+        return wins[a * size + b] + wins[b * size + a] + draws[a * size + b];
+    }
+
+    /**
+     * Gets a player's score against another: one per win and a half per
+     * draw
+     *
+     * @param a Player scoring
+     * @param b Opponent
+     * @return Score of a against b
+     */
+    public double getScore(int a, int b) {
+        return wins[a * size + b] + 0.5 * draws[a * size + b];
+    }
+}
@@ -0,0 +1,110 @@
+package crazy8s.rating;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Ratings of a fixed field of players, updated one batch of Outcomes at a
+ * time. Each update only needs the current ratings and the batch, so any
+ * number of games can be rated without keeping their results.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public abstract class RatingSystem {
+
+    /**
+     * Ratings on the Elo scale, starting at Standing.INITIAL_RATING
+     */
+    protected final double[] ratings;
+
+    private long batches;
+
+    /**
+     * Constructor
+     *
+     * @param size Number of players, numbered from 0
+     */
+    protected RatingSystem(int size) {
+        ratings = new double[size];
+        Arrays.fill(ratings, Standing.INITIAL_RATING);
+    }
+
+    /**
+     * Rates a batch of games. Every game in the batch is rated against the
+     * ratings from before the batch.
+     *
+     * @param batch Results between my players
+     */
+    public final void update(Outcomes batch) {
+        if (batch.size() != ratings.length) {
+            throw new IllegalArgumentException("batch has " + batch.size() + " players, not " + ratings.length);
+        }
+        rate(batch);
+        batches++;
+    }
+
+    /**
+     * Moves the ratings by the results of a batch
+     *
+     * @param batch Results between my players
+     */
+    protected abstract void rate(Outcomes batch);
+
+    /**
+     * Gets the expected score of one player against another on the Elo
+     * scale: one for a sure win, a half for an even game
+     *
+     * @param rating Player's rating
+     * @param other Opponent's rating
+     * @return Expected score from 0 to 1
+     */
+    public static double expected(double rating, double other) {
+        return 1 / (1 + Math.pow(10, (other - rating) / 400));
+    }
+
+    /**
+     * Gets a player's rating
+     *
+     * @param player Player number
+     * @return Rating
+     */
+    public double getRating(int player) {
+        return ratings[player];
+    }
+
+    /**
+     * Gets the number of players
+     *
+     * @return Number of players
+     */
+    public int size() {
+        return ratings.length;
+    }
+
+    /**
+     * Gets the number of batches rated
+     *
+     * @return batches Number of batches
+     */
+    public long getBatches() {
+        return batches;
+    }
+
+    /**
+     * Orders the players by rating
+     *
+     * @return Player numbers, highest rated first
+     */
+    public int[] ranking() {
+        Integer[] order = new Integer[ratings.length];
+        for (int index = 0; index < order.length; index++) {
+            order[index] = index;
+        }
+        Arrays.sort(order, Comparator.comparingDouble((Integer player) -> ratings[player]).reversed());
+        int[] ranking = new int[order.length];
+        for (int index = 0; index < order.length; index++) {
+            ranking[index] = order[index];
+        }
+        return ranking;
+    }
+}
@@ -0,0 +1,240 @@
+package crazy8s.rating;
+
+/**
+ * Sequential probability ratio test of whether a candidate is stronger than
+ * a baseline, fed with the results of game pairs. It weighs the hypothesis
+ * that the candidate is elo1 Elo stronger against the hypothesis that it is
+ * only elo0 stronger, after every pair if need be, and stops as soon as the
+ * results favour one enough for the error rates asked for. Strategies that
+ * are clearly better or clearly worse are told apart in far fewer games
+ * than a fixed-length test needs.
+ *
+ * Each pair scores 0 to 4 half points for the candidate, a win being two
+ * and a blocked game one. The log likelihood ratio uses the normal
+ * approximation of the pair scores, with their variance measured from the
+ * pairs themselves, so mirrored pairs that cancel out luck also shorten the
+ * test.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class Sprt {
+
+    /**
+     * The results do not yet favour either hypothesis enough
+     */
+    public final static int UNDECIDED = 0;
+
+    /**
+     * The candidate is at least elo1 stronger
+     */
+    public final static int ACCEPTED = 1;
+
+    /**
+     * The candidate is at most elo0 stronger
+     */
+    public final static int REJECTED = -1;
+
+    /**
+     * Weight of a pair score that has not occurred
+     */
+    private final static double UNSEEN = 1e-3;
+
+    private final double elo0;
+
+    private final double elo1;
+
+    private final double lower;
+
+    private final double upper;
+
+    private final long[] pairs = new long[5];
+
+    private long count;
+
+    /**
+     * Constructor
+     *
+     * @param elo0 Candidate's advantage under the hypothesis to reject
+     * @param elo1 Candidate's advantage under the hypothesis to accept,
+     * greater than elo0
+     * @param alpha Chance of accepting a candidate that is only elo0
+     * stronger
+     * @param beta Chance of rejecting a candidate that is elo1 stronger
+     */
+    public Sprt(double elo0, double elo1, double alpha, double beta) {
+        if (elo1 <= elo0) {
+            throw new IllegalArgumentException("elo1 must be greater than elo0");
+        }
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        lower = Math.log(beta / (1 - alpha));
+        upper = Math.log((1 - beta) / alpha);
+    }
+
+    /**
+     * Constructor for a test of the same hypotheses and error rates
+     *
+     * @param other Test to copy the hypotheses of, not the pairs
+     */
+    private Sprt(Sprt other) {
+        elo0 = other.elo0;
+        elo1 = other.elo1;
+        lower = other.lower;
+        upper = other.upper;
+    }
+
+    /**
+     * Creates a test of the same hypotheses with no pairs, to gather
+     * results apart and merge them in later
+     *
+     * @return New test
+     */
+    public Sprt empty() {
+        return new Sprt(this);
+    }
+
+    /**
+     * Records one game pair
+     *
+     * @param points Candidate's half points from 0 to 4
+     */
+    public void record(int points) {
+        pairs[points]++;
+        count++;
+    }
+
+    /**
+     * Adds the pairs of another test with the same hypotheses to mine
+     *
+     * @param other Test to merge in
+     */
+    public void merge(Sprt other) {
+        for (int points = 0; points < pairs.length; points++) {
+            pairs[points] += other.pairs[points];
+        }
+        count += other.count;
+    }
+
+    /**
+     * Gets the log likelihood ratio of the two hypotheses
+     *
+     * @return Log of how much likelier the results are if the candidate is
+     * elo1 stronger than if it is elo0 stronger
+     */
+    public double getLLR() {
+        if (count < 2) {
+            return 0;
+        }
+        double mean = getScore();
+        double variance = getVariance();
+        double score0 = RatingSystem.expected(elo0, 0);
+        double score1 = RatingSystem.expected(elo1, 0);
+        return count * (score1 - score0) * (2 * mean - score0 - score1) / (2 * variance);
+    }
+
+    /**
+     * Gets the variance of the pair scores, on a scale where a pair scores
+     * 0 to 1. Scores never seen count as a sliver of a pair, so results that
+     * never vary still have a variance.
+     *
+     * @return Variance of one pair's score
+     */
+    public double getVariance() {
+        double total = 0;
+        double sum = 0;
+        for (int points = 0; points < pairs.length; points++) {
+            double weight = pairs[points] == 0 ? UNSEEN : pairs[points];
+            total += weight;
+            sum += weight * points / 4.0;
+        }
+        double mean = sum / total;
+        double squares = 0;
+        for (int points = 0; points < pairs.length; points++) {
+            double weight = pairs[points] == 0 ? UNSEEN : pairs[points];
+            double deviation = points / 4.0 - mean;
+            squares += weight * deviation * deviation;
+        }
+        return squares / total;
+    }
+
+    /**
+     * Gets the outcome of the test so far
+     *
+     * @return ACCEPTED, REJECTED or UNDECIDED
+     */
+    public int getStatus() {
+        double llr = getLLR();
+        if (llr >= upper) {
+            return ACCEPTED;
+        }
+        if (llr <= lower) {
+            return REJECTED;
+        }
+        return UNDECIDED;
+    }
+
+    /**
+     * Gets the candidate's mean score per game
+     *
+     * @return Score from 0 to 1, a half if the two are even
+     */
+    public double getScore() {
+        long points = 0;
+        for (int index = 0; index < pairs.length; index++) {
+            points += index * pairs[index];
+        }
+        return count == 0 ? 0.5 : points / (4.0 * count);
+    }
+
+    /**
+     * Gets the candidate's estimated advantage
+     *
+     * @return Elo difference matching the mean score
+     */
+    public double getElo() {
+        double score = Math.min(Math.max(getScore(), 1e-6), 1 - 1e-6);
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    /**
+     * Gets the number of game pairs recorded
+     *
+     * @return count Number of pairs
+     */
+    public long getPairs() {
+        return count;
+    }
+
+    /**
+     * Gets the number of pairs with a given score
+     *
+     * @param points Candidate's half points from 0 to 4
+     * @return Number of pairs
+     */
+    public long getPairs(int points) {
+        return pairs[points];
+    }
+
+    /**
+     * Gets the bounds the log likelihood ratio must cross
+     *
+     * @return Lower bound, to reject, and upper bound, to accept
+     */
+    public double[] getBounds() {
+        return new double[]{lower, upper};
+    }
+
+    /**
+     * Converts me to a string
+     *
+     * @return Outcome, pairs, score, Elo and log likelihood ratio
+     */
+    @Override
+    public String toString() {
+        int status = getStatus();
+        String outcome = status == ACCEPTED ? "accepted" : status == REJECTED ? "rejected" : "undecided";
+        return String.format("%s after %d pairs: score %.4f, Elo %+.1f, LLR %.2f (%.2f, %.2f) [%d %d %d %d %d]",
+                outcome, count, getScore(), getElo(), getLLR(), lower, upper,
+                pairs[0], pairs[1], pairs[2], pairs[3], pairs[4]);
+    }
+}
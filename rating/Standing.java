@@ -0,0 +1,130 @@
+package crazy8s.rating;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One registered player's totals on a Leaderboard. Every total is an adder,
+ * so any number of tables can update the same player at once, say a bot
+ * seated at thousands of tables, without waiting on each other.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public final class Standing {
+
+    /**
+     * Rating of a player who has not been rated
+     */
+    public final static double INITIAL_RATING = 1500;
+
+    private final int id;
+
+    private final String name;
+
+    private final LongAdder points = new LongAdder();
+
+    private final LongAdder games = new LongAdder();
+
+    private final LongAdder wins = new LongAdder();
+
+    private final DoubleAdder rating = new DoubleAdder();
+
+    /**
+     * Constructor
+     *
+     * @param id Number given by the leaderboard, in order of registration
+     * @param name Unique name
+     */
+    Standing(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    /**
+     * Records a game the player took part in
+     *
+     * @param won true if they won it
+     * @param points Points they earned
+     */
+    void record(boolean won, int points) {
+        games.increment();
+        if (won) {
+            wins.increment();
+            this.points.add(points);
+        }
+    }
+
+    /**
+     * Moves the rating by a rating engine's update
+     *
+     * @param change Rating points to add, negative to take away
+     */
+    public void addRating(double change) {
+        rating.add(change);
+    }
+
+    /**
+     * Gets the number given by the leaderboard
+     *
+     * @return id Number from 0, in order of registration
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the player's name
+     *
+     * @return name Unique name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the points won in every game recorded
+     *
+     * @return Total points
+     */
+    public long getPoints() {
+        return points.sum();
+    }
+
+    /**
+     * Gets the number of games recorded
+     *
+     * @return Number of games
+     */
+    public long getGames() {
+        return games.sum();
+    }
+
+    /**
+     * Gets the number of games won
+     *
+     * @return Number of wins
+     */
+    public long getWins() {
+        return wins.sum();
+    }
+
+    /**
+     * Gets the rating
+     *
+     * @return INITIAL_RATING plus every change added
+     */
+    public double getRating() {
+        return INITIAL_RATING + rating.sum();
+    }
+
+    /**
+     * Converts me to a string
+     *
+     * @return Name, points, wins, games and rating
+     */
+    @Override
+    public String toString() {
+        return name + " " + getPoints() + " points, " + getWins() + "/" + getGames() + " wins, rating "
+                + Math.round(getRating());
+    }
+}
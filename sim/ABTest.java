@@ -0,0 +1,226 @@
+package crazy8s.sim;
+
+import crazy8s.Game;
+import crazy8s.GameResult;
+import crazy8s.card.Hand;
+import crazy8s.player.IPlayer;
+import crazy8s.player.Opponent;
+import crazy8s.rating.RatingSystem;
+import crazy8s.rating.Sprt;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Compares a candidate strategy with a baseline in game pairs, on all
+ * cores, until a sequential test decides. Both games of a pair use one seed
+ * with the players given in opposite order, so the seating swaps and each
+ * side is dealt the other's cards from the same deck: the luck of the deal
+ * and the seat counts for both sides alike and only the play differs.
+ *
+ * Pairs are played in chunks and fed to the test in order, so the outcome
+ * does not depend on the thread count. Chunks still running when the test
+ * decides are cancelled.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class ABTest {
+
+    /**
+     * Game pairs in a chunk handed to a worker
+     */
+    private final static int CHUNK = 64;
+
+    private final Supplier<? extends IPlayer> baseline;
+
+    private final Supplier<? extends IPlayer> candidate;
+
+    private final int threads;
+
+    private long seed = System.nanoTime();
+
+    /**
+     * Constructor, playing on one thread per available core
+     *
+     * @param baseline Factory of the strategy in use
+     * @param candidate Factory of the strategy to try
+     */
+    public ABTest(Supplier<? extends IPlayer> baseline, Supplier<? extends IPlayer> candidate) {
+        this(baseline, candidate, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param baseline Factory of the strategy in use
+     * @param candidate Factory of the strategy to try
+     * @param threads Number of worker threads
+     */
+    public ABTest(Supplier<? extends IPlayer> baseline, Supplier<? extends IPlayer> candidate, int threads) {
+        this.baseline = baseline;
+        this.candidate = candidate;
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the seed. Pair number n is always seeded the same way.
+     *
+     * @param seed Seed of the first pair
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Plays pairs until the test decides or a limit is reached. A test
+     * holding earlier pairs from the same seed carries on with the pairs
+     * after them, so no deal is counted twice.
+     *
+     * @param test Test to feed, possibly holding earlier pairs
+     * @param maxPairs Most pairs to play in this call
+     * @return The test
+     */
+    public Sprt run(Sprt test, long maxPairs) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            ArrayDeque<Future<Sprt>> running = new ArrayDeque<>();
+            long next = test.getPairs();
+            long end = next + maxPairs;
+            while (true) {
+                while (running.size() < 2 * threads && next < end) {
+                    long count = Math.min(CHUNK, end - next);
+                    running.add(pool.submit(task(test, next, count)));
+                    next += count;
+                }
+                Future<Sprt> chunk = running.poll();
+                if (chunk == null) {
+                    return test;
+                }
+                test.merge(chunk.get());
+                if (test.getStatus() != Sprt.UNDECIDED) {
+                    return test;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("A/B test interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A/B test game failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates a task playing a chunk of pairs
+     *
+     * @param test Test whose hypotheses the chunk's results use
+     * @param start Number of the first pair
+     * @param count Number of pairs
+     * @return Task returning the chunk's results
+     */
+    private Callable<Sprt> task(final Sprt test, final long start, final long count) {
+        return new Callable<Sprt>() {
+            @Override
+            public Sprt call() {
+                Sprt results = test.empty();
+                for (long pair = start; pair < start + count && !Thread.currentThread().isInterrupted(); pair++) {
+                    results.record(pair(seed + pair * 0x9E3779B97F4A7C15L, candidate, baseline));
+                }
+                return results;
+            }
+        };
+    }
+
+    /**
+     * Plays a mirrored game pair: one seed, with the players in one order
+     * and then the other
+     *
+     * @param seed Seed of both games
+     * @param candidate Factory of the player scored
+     * @param baseline Factory of their opponent
+     * @return Candidate's half points from 0 to 4
+     */
+    static int pair(long seed, Supplier<? extends IPlayer> candidate, Supplier<? extends IPlayer> baseline) {
+        IPlayer a = candidate.get();
+        int points = score(new Game(seed, a, baseline.get()).play(), a);
+        IPlayer b = candidate.get();
+        return points + score(new Game(seed, baseline.get(), b).play(), b);
+    }
+
+    /**
+     * Scores a game for the candidate
+     *
+     * @param result Result of the game
+     * @param candidate Candidate's player
+     * @return Half points: two for a win, one for a blocked game
+     */
+    private static int score(GameResult result, IPlayer candidate) {
+        if (result.getWinner() == null) {
+            return 1;
+        }
+        return result.getWinner() == candidate ? 2 : 0;
+    }
+
+    /**
+     * An Opponent that names a random suit with its 8s. The suits are drawn
+     * from a source seeded with the hand dealt, which the game's seed
+     * decides, so a test plays the same games whatever the thread count.
+     */
+    private static class RandomSuit extends Opponent {
+
+        private SplittableRandom random = new SplittableRandom(0);
+
+        /**
+         * Seeds the suits from the hand dealt
+         *
+         * @param players Players at the table
+         * @param decks Number of decks in the shoe
+         */
+        @Override
+        public void seated(List<IPlayer> players, int decks) {
+            super.seated(players, decks);
+            random = new SplittableRandom(Hand.maskOf(getHand()));
+        }
+
+        /**
+         * Names a random suit
+         *
+         * @return Chosen suit
+         */
+        @Override
+        protected int chooseSuit() {
+            return 1 + random.nextInt(4);
+        }
+    }
+
+    /**
+     * Tests whether an Opponent naming random suits is at least 5 Elo
+     * stronger than one naming its longest suit, or the Opponent against
+     * itself, and reports how many pairs the test took against a test of
+     * fixed length
+     *
+     * @param args "random" or "same", default random; most pairs, default
+     * one million
+     */
+    public static void main(String[] args) {
+        boolean same = args.length > 0 && args[0].equals("same");
+        long maxPairs = args.length > 1 ? Long.parseLong(args[1]) : 1000000;
+        ABTest ab = new ABTest(Opponent::new, same ? Opponent::new : RandomSuit::new);
+        long start = System.nanoTime();
+        Sprt test = ab.run(new Sprt(0, 5, 0.05, 0.05), maxPairs);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(test);
+        System.out.printf("%d games in %.1f s%n", 2 * test.getPairs(), seconds);
+        // Pairs a fixed-length test with the same error rates of 5% needs
+        double gap = RatingSystem.expected(5, 0) - RatingSystem.expected(0, 0);
+        double fixed = Math.pow(2 * 1.645 * Math.sqrt(test.getVariance()) / gap, 2);
+        System.out.printf("A fixed-length test would need %d pairs%n", (long) Math.ceil(fixed));
+    }
+}
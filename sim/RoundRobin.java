@@ -0,0 +1,294 @@
+package crazy8s.sim;
+
+import crazy8s.Game;
+import crazy8s.GameResult;
+import crazy8s.card.Hand;
+import crazy8s.player.IPlayer;
+import crazy8s.player.Opponent;
+import crazy8s.rating.Elo;
+import crazy8s.rating.Glicko2;
+import crazy8s.rating.Outcomes;
+import crazy8s.rating.RatingSystem;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Plays rounds in which every entrant meets every other one head to head,
+ * on all cores, and rates each round as one batch. Workers keep their own
+ * Outcomes, which are merged when the round ends, so memory does not grow
+ * with the number of games.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class RoundRobin {
+
+    private final List<Supplier<? extends IPlayer>> entrants;
+
+    private final int[][] pairs;
+
+    private final int threads;
+
+    private long seed = System.nanoTime();
+
+    private long rounds;
+
+    /**
+     * Constructor, playing on one thread per available core
+     *
+     * @param entrants Player factories, one per entrant
+     */
+    public RoundRobin(List<Supplier<? extends IPlayer>> entrants) {
+        this(entrants, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param entrants Player factories, one per entrant
+     * @param threads Number of worker threads
+     */
+    public RoundRobin(List<Supplier<? extends IPlayer>> entrants, int threads) {
+        this.entrants = entrants;
+        this.threads = threads;
+        int size = entrants.size();
+        pairs = new int[size * (size - 1) / 2][];
+        for (int a = 0, index = 0; a < size; a++) {
+            for (int b = a + 1; b < size; b++) {
+                pairs[index++] = new int[]{a, b};
+            }
+        }
+    }
+
+    /**
+     * Sets the seed. Game n of round r is always seeded the same way.
+     *
+     * @param seed Seed of the first game
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Plays rounds on one pool of workers and rates each one as it ends
+     *
+     * @param count Number of rounds
+     * @param systems Rating systems to update after every round
+     * @return Results of the last round
+     */
+    public Outcomes play(int count, RatingSystem... systems) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            Outcomes round = null;
+            for (int index = 0; index < count; index++) {
+                round = round(pool);
+                for (RatingSystem system : systems) {
+                    system.update(round);
+                }
+                rated(rounds, round);
+            }
+            return round;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays one game between every pair of entrants
+     *
+     * @return Results of the round
+     */
+    public Outcomes round() {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            return round(pool);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays one game between every pair of entrants on the given workers
+     *
+     * @param pool Workers
+     * @return Results of the round
+     */
+    private Outcomes round(ExecutorService pool) {
+        try {
+            int batch = Math.max(1, pairs.length / (threads * 8));
+            ArrayList<Future<Outcomes>> futures = new ArrayList<>();
+            for (int start = 0; start < pairs.length; start += batch) {
+                futures.add(pool.submit(task(rounds * pairs.length + start, start,
+                        Math.min(pairs.length, start + batch))));
+            }
+            Outcomes total = new Outcomes(entrants.size());
+            for (Future<Outcomes> future : futures) {
+                total.merge(future.get());
+            }
+            rounds++;
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("round robin interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("round robin game failed", e.getCause());
+        }
+    }
+
+    /**
+     * Reports a round played by play() once the ratings include it. Does
+     * nothing unless overridden.
+     *
+     * @param round Number of rounds played so far, from 1
+     * @param outcomes Results of the round
+     */
+    protected void rated(long round, Outcomes outcomes) {
+    }
+
+    /**
+     * Creates a task playing a range of pairings
+     *
+     * @param game Number of the first game, for its seed
+     * @param from First pairing
+     * @param to Pairing after the last
+     * @return Task returning the results of its games
+     */
+    private Callable<Outcomes> task(final long game, final int from, final int to) {
+        return new Callable<Outcomes>() {
+            @Override
+            public Outcomes call() {
+                Outcomes outcomes = new Outcomes(entrants.size());
+                IPlayer[] players = new IPlayer[2];
+                for (int index = from; index < to; index++) {
+                    int[] pair = pairs[index];
+                    players[0] = entrants.get(pair[0]).get();
+                    players[1] = entrants.get(pair[1]).get();
+                    Game table = new Game(seed + (game + index - from) * 0x9E3779B97F4A7C15L, players);
+                    GameResult result = table.play();
+                    int winner = result.getWinner() == null ? -1 : result.getWinner() == players[0] ? 0 : 1;
+                    outcomes.record(pair, winner);
+                }
+                return outcomes;
+            }
+        };
+    }
+
+    /**
+     * An Opponent that sometimes wastes an 8 and names a suit at random.
+     * Handicaps from 0 to 1 give a field of known order. The blunders are
+     * drawn from a source seeded with the hand dealt, which the game's seed
+     * decides, so a seeded round robin plays the same games every run.
+     */
+    private static class Handicapped extends Opponent {
+
+        private final double handicap;
+
+        private SplittableRandom random = new SplittableRandom(0);
+
+        /**
+         * Constructor
+         *
+         * @param handicap Chance of each blunder
+         */
+        Handicapped(double handicap) {
+            this.handicap = handicap;
+        }
+
+        /**
+         * Seeds the blunders from the hand dealt
+         *
+         * @param players Players at the table
+         * @param decks Number of decks in the shoe
+         */
+        @Override
+        public void seated(List<IPlayer> players, int decks) {
+            super.seated(players, decks);
+            random = new SplittableRandom(Hand.maskOf(getHand()));
+        }
+
+        /**
+         * Plays an 8 first when the handicap strikes
+         *
+         * @return Integer representing command, or index of card to play
+         */
+        @Override
+        public int getCommand() {
+            if (random.nextDouble() < handicap) {
+                int index = search8s();
+                if (index != -1) {
+                    return index;
+                }
+            }
+            return super.getCommand();
+        }
+
+        /**
+         * Names a random suit when the handicap strikes
+         *
+         * @return Chosen suit
+         */
+        @Override
+        protected int chooseSuit() {
+            if (random.nextDouble() < handicap) {
+                return 1 + random.nextInt(4);
+            }
+            return super.chooseSuit();
+        }
+    }
+
+    /**
+     * Rates a field of Opponents with handicaps from none to always, with
+     * Elo and Glicko-2, and reports how closely the ratings order the field
+     * after each round
+     *
+     * @param args Number of entrants, default 100; number of rounds, default
+     * 40
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        List<Supplier<? extends IPlayer>> entrants = new ArrayList<>();
+        for (int index = 0; index < size; index++) {
+            double handicap = (double) index / (size - 1);
+            entrants.add(() -> new Handicapped(handicap));
+        }
+        Elo elo = new Elo(size, Elo.DEFAULT_K, 10 * size);
+        Glicko2 glicko = new Glicko2(size, Glicko2.DEFAULT_TAU, 0.01);
+        RoundRobin robin = new RoundRobin(entrants) {
+            @Override
+            protected void rated(long round, Outcomes outcomes) {
+                System.out.printf("Round %d: Elo order %.3f, spread %.0f; Glicko-2 order %.3f, spread %.0f, "
+                        + "deviation %.1f%n", round, order(elo), elo.getRating(0) - elo.getRating(size - 1),
+                        order(glicko), glicko.getRating(0) - glicko.getRating(size - 1),
+                        glicko.getDeviation(size / 2));
+            }
+        };
+        long start = System.nanoTime();
+        robin.play(count, elo, glicko);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println((long) (count * robin.pairs.length / seconds) + " games per second");
+    }
+
+    /**
+     * Measures how well a rating orders a field that weakens with entrant
+     * number: Spearman's rank correlation of rating and entrant number
+     *
+     * @param system Ratings of the field
+     * @return 1 if the order is exact
+     */
+    private static double order(RatingSystem system) {
+        int[] ranking = system.ranking();
+        int size = ranking.length;
+        double squares = 0;
+        for (int rank = 0; rank < size; rank++) {
+            squares += (double) (rank - ranking[rank]) * (rank - ranking[rank]);
+        }
+        return 1 - 6 * squares / ((double) size * ((double) size * size - 1));
+    }
+}
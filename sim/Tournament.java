@@ -0,0 +1,220 @@
+package crazy8s.sim;
+
+import crazy8s.Game;
+import crazy8s.GameResult;
+import crazy8s.log.GameLog;
+import crazy8s.metrics.GameMetrics;
+import crazy8s.player.IPlayer;
+import crazy8s.player.Opponent;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Plays many headless games between the same entrants on all cores. Every
+ * game gets fresh player instances, so scores never leak between games or
+ * threads, and each worker keeps its own totals until they are merged.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class Tournament {
+
+    private final List<Supplier<? extends IPlayer>> entrants;
+
+    private long seed = System.nanoTime();
+
+    private Path logDirectory;
+
+    private GameMetrics metrics;
+
+    /**
+     * Constructor. Only the factories are kept, not the array.
+     *
+     * @param entrants One player factory per seat
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public Tournament(Supplier<? extends IPlayer>... entrants) {
+        this.entrants = List.of(entrants);
+    }
+
+    /**
+     * Sets the seed of the tournament. Game number n is always seeded the
+     * same way, so results do not depend on the thread count and a run can
+     * be split into ranges of games across machines.
+     *
+     * @param seed Seed of the first game
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Logs every game in binary, one file per batch of games
+     *
+     * @param logDirectory Existing directory for the logs, null for none
+     */
+    public void setLogDirectory(Path logDirectory) {
+        this.logDirectory = logDirectory;
+    }
+
+    /**
+     * Records counters and decision latencies of every game. One metrics
+     * object is shared by all worker threads.
+     *
+     * @param metrics Metrics to add to, null for none
+     */
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Plays games on one thread per available core
+     *
+     * @param games Number of games to play
+     * @return Merged totals
+     */
+    public TournamentResult run(long games) {
+        return run(games, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Plays games on a fixed number of threads
+     *
+     * @param games Number of games to play
+     * @param threads Number of worker threads
+     * @return Merged totals
+     */
+    public TournamentResult run(long games, int threads) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            // A few batches per thread evens out the long and short games
+            long batch = Math.max(1, games / (threads * 8L));
+            ArrayList<Future<TournamentResult>> futures = new ArrayList<>();
+            for (long start = 0; start < games; start += batch) {
+                long count = Math.min(batch, games - start);
+                futures.add(pool.submit(task(start, count)));
+            }
+
+            TournamentResult total = new TournamentResult(entrants.size());
+            for (Future<TournamentResult> future : futures) {
+                total.merge(future.get());
+            }
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("tournament interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("tournament game failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates a task playing a batch of games with its own totals
+     *
+     * @param start Number of the first game in the batch
+     * @param count Number of games in the batch
+     * @return Task returning the batch totals
+     */
+    protected Callable<TournamentResult> task(final long start, final long count) {
+        return new Callable<TournamentResult>() {
+            @Override
+            public TournamentResult call() throws IOException {
+                if (logDirectory == null) {
+                    return play(start, count, null);
+                }
+                try (GameLog log = new GameLog(logDirectory.resolve("games-" + start + ".log"))) {
+                    return play(start, count, log);
+                }
+            }
+        };
+    }
+
+    /**
+     * Plays a batch of games on the current thread
+     *
+     * @param start Number of the first game in the batch
+     * @param count Number of games in the batch
+     * @param log Log to record the games in, or null
+     * @return Batch totals
+     */
+    protected TournamentResult play(long start, long count, GameLog log) {
+        TournamentResult result = new TournamentResult(entrants.size());
+        IPlayer[] players = new IPlayer[entrants.size()];
+        for (long game = start; game < start + count; game++) {
+            for (int index = 0; index < players.length; index++) {
+                players[index] = entrants.get(index).get();
+            }
+            Game table = new Game(gameSeed(game), players);
+            table.setLog(log);
+            table.setMetrics(metrics);
+            GameResult outcome = table.play();
+            result.record(indexOf(players, outcome.getWinner()), outcome.getScore(),
+                    outcome.getTurns(), outcome.getDraws());
+        }
+        return result;
+    }
+
+    /**
+     * Gets the seed of one game
+     *
+     * @param game Number of the game
+     * @return Seed derived from the tournament seed
+     */
+    protected long gameSeed(long game) {
+        return seed + game * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Finds which entrant a player instance belongs to
+     *
+     * @param players Player instances in entrant order
+     * @param player Player to look for
+     * @return Index of the entrant, -1 if not found
+     */
+    private static int indexOf(IPlayer[] players, IPlayer player) {
+        for (int index = 0; index < players.length; index++) {
+            if (players[index] == player) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Runs an Opponent self-play tournament
+     *
+     * @param args Number of games, default one million; optionally a
+     * directory to log the games in, or "-" for none; and "metrics" to
+     * record and print metrics
+     */
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1000000;
+        Tournament tournament = new Tournament(Opponent::new, Opponent::new);
+        if (args.length > 1 && !args[1].equals("-")) {
+            tournament.setLogDirectory(Path.of(args[1]));
+        }
+        GameMetrics metrics = null;
+        if (args.length > 2 && args[2].equals("metrics")) {
+            metrics = new GameMetrics(16);
+            tournament.setMetrics(metrics);
+        }
+        long start = System.nanoTime();
+        TournamentResult result = tournament.run(games);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.print(result);
+        System.out.println((long) (games / seconds) + " games per second");
+        if (metrics != null) {
+            System.out.print(metrics.snapshot());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package crazy8s.sim;
+
+/**
+ * Win and score totals of a tournament, one slot per entrant.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class TournamentResult {
+
+    private final long[] wins;
+
+    private final long[] points;
+
+    private long games;
+
+    private long blocked;
+
+    private long turns;
+
+    private long draws;
+
+    /**
+     * Constructor
+     *
+     * @param entrants Number of entrants
+     */
+    public TournamentResult(int entrants) {
+        wins = new long[entrants];
+        points = new long[entrants];
+    }
+
+    /**
+     * Records the outcome of one game
+     *
+     * @param winner Entrant who won, -1 if nobody won
+     * @param score Points earned by the winner
+     * @param turns Number of turns taken
+     * @param draws Number of cards drawn
+     */
+    public void record(int winner, int score, int turns, int draws) {
+        games++;
+        this.turns += turns;
+        this.draws += draws;
+        if (winner == -1) {
+            blocked++;
+            return;
+        }
+        wins[winner]++;
+        points[winner] += score;
+    }
+
+    /**
+     * Adds the totals of another result to mine
+     *
+     * @param other Result to merge in
+     */
+    public void merge(TournamentResult other) {
+        for (int index = 0; index < wins.length; index++) {
+            wins[index] += other.wins[index];
+            points[index] += other.points[index];
+        }
+        games += other.games;
+        blocked += other.blocked;
+        turns += other.turns;
+        draws += other.draws;
+    }
+
+    /**
+     * Gets the number of games won by an entrant
+     *
+     * @param entrant Index of the entrant
+     * @return Number of wins
+     */
+    public long getWins(int entrant) {
+        return wins[entrant];
+    }
+
+    /**
+     * Gets the points earned by an entrant
+     *
+     * @param entrant Index of the entrant
+     * @return Total score
+     */
+    public long getPoints(int entrant) {
+        return points[entrant];
+    }
+
+    /**
+     * Gets the number of games played
+     *
+     * @return games Number of games
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Gets the number of games nobody won
+     *
+     * @return blocked Number of blocked games
+     */
+    public long getBlocked() {
+        return blocked;
+    }
+
+    /**
+     * Gets the number of turns over all games
+     *
+     * @return turns Number of turns
+     */
+    public long getTurns() {
+        return turns;
+    }
+
+    /**
+     * Gets the number of draws over all games
+     *
+     * @return draws Number of draws
+     */
+    public long getDraws() {
+        return draws;
+    }
+
+    /**
+     * Converts me to a string
+     *
+     * @return String listing wins and points of each entrant
+     */
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        s.append(games).append(" games, ").append(blocked).append(" blocked\n");
+        for (int index = 0; index < wins.length; index++) {
+            s.append(index + 1).append(". ").append(wins[index]).append(" wins, ")
+                    .append(points[index]).append(" points\n");
+        }
+        return s.toString();
+    }
+}
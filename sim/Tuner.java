@@ -0,0 +1,299 @@
+package crazy8s.sim;
+
+import crazy8s.player.Heuristic;
+import crazy8s.player.HeuristicOpponent;
+import crazy8s.player.IPlayer;
+import crazy8s.player.Opponent;
+import crazy8s.rating.Sprt;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Tunes the weights of a HeuristicOpponent with a genetic algorithm. Every
+ * generation each member of the population plays mirrored game pairs, half
+ * against Opponent and half against the best member of the generation
+ * before, and scores its share of the points. The best members go on
+ * unchanged; the rest of the next generation are children of members picked
+ * in tournaments, blended gene by gene and mutated.
+ *
+ * A whole generation is played at once on all cores. All members meet the
+ * same deals, so their scores differ by their play more than by their
+ * luck, and every generation gets new deals, so a lucky member does not
+ * stay on top.
+ *
+ * @author Liam Harwood and Juan Vasquez
+ */
+public class Tuner {
+
+    /**
+     * Members that go on to the next generation unchanged
+     */
+    private final static int ELITE = 2;
+
+    /**
+     * Members drawn for each tournament that picks a parent
+     */
+    private final static int TOURNAMENT = 3;
+
+    /**
+     * Game pairs in a task handed to a worker
+     */
+    private final static int CHUNK = 50;
+
+    private final int size;
+
+    private final int pairs;
+
+    private final int threads;
+
+    private final SplittableRandom random;
+
+    private double mutation = 0.5;
+
+    /**
+     * Constructor, playing on one thread per available core
+     *
+     * @param size Members of each generation
+     * @param pairs Game pairs each member plays per generation
+     * @param seed Seed of the algorithm and the deals
+     */
+    public Tuner(int size, int pairs, long seed) {
+        this(size, pairs, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param size Members of each generation, more than ELITE
+     * @param pairs Game pairs each member plays per generation
+     * @param seed Seed of the algorithm and the deals
+     * @param threads Number of worker threads
+     */
+    public Tuner(int size, int pairs, long seed, int threads) {
+        if (size <= ELITE) {
+            throw new IllegalArgumentException("a generation needs more than " + ELITE + " members");
+        }
+        this.size = size;
+        this.pairs = pairs;
+        this.threads = threads;
+        random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Sets the spread of mutations at the start. It shrinks to a fifth by
+     * the last generation.
+     *
+     * @param mutation Standard deviation added to a mutated weight
+     */
+    public void setMutation(double mutation) {
+        this.mutation = mutation;
+    }
+
+    /**
+     * Evolves weights, starting from Opponent's
+     *
+     * @param generations Number of generations
+     * @return Best weights of the last generation
+     */
+    public Heuristic evolve(int generations) {
+        double[][] population = new double[size][];
+        population[0] = Heuristic.DEFAULT.toArray();
+        for (int index = 1; index < size; index++) {
+            population[index] = mutate(Heuristic.DEFAULT.toArray(), 1, mutation);
+        }
+        Heuristic champion = Heuristic.DEFAULT;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int generation = 0; generation < generations; generation++) {
+                double[] fitness = evaluate(pool, population, champion, random.nextLong());
+                Integer[] order = new Integer[size];
+                for (int index = 0; index < size; index++) {
+                    order[index] = index;
+                }
+                Arrays.sort(order, Comparator.comparingDouble((Integer index) -> fitness[index]).reversed());
+                champion = new Heuristic(population[order[0]]);
+                generation(generation, champion, fitness[order[0]], Arrays.stream(fitness).average().orElse(0));
+                double spread = mutation * (1 - 0.8 * generation / Math.max(1, generations - 1));
+                double[][] next = new double[size][];
+                for (int index = 0; index < ELITE; index++) {
+                    next[index] = population[order[index]];
+                }
+                for (int index = ELITE; index < size; index++) {
+                    double[] child = blend(population[pick(fitness)], population[pick(fitness)]);
+                    next[index] = mutate(child, 0.3, spread);
+                }
+                population = next;
+            }
+            return champion;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays a generation's games and scores every member
+     *
+     * @param pool Workers
+     * @param population Weights of the members
+     * @param champion Best weights of the generation before
+     * @param seed Seed of the generation's deals
+     * @return Each member's mean score per game, from 0 to 1
+     */
+    private double[] evaluate(ExecutorService pool, double[][] population, Heuristic champion, long seed) {
+        try {
+            ArrayList<Future<Integer>> futures = new ArrayList<>();
+            for (double[] weights : population) {
+                Heuristic heuristic = new Heuristic(weights);
+                for (int start = 0; start < pairs; start += CHUNK) {
+                    futures.add(pool.submit(task(heuristic, champion, seed, start, Math.min(pairs, start + CHUNK))));
+                }
+            }
+            double[] fitness = new double[population.length];
+            int chunks = (pairs + CHUNK - 1) / CHUNK;
+            for (int index = 0; index < futures.size(); index++) {
+                fitness[index / chunks] += futures.get(index).get();
+            }
+            for (int index = 0; index < fitness.length; index++) {
+                fitness[index] /= 4.0 * pairs;
+            }
+            return fitness;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("tuning interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("tuning game failed", e.getCause());
+        }
+    }
+
+    /**
+     * Creates a task playing a range of one member's game pairs. Even pairs
+     * are against Opponent and odd pairs against the champion.
+     *
+     * @param heuristic Member's weights
+     * @param champion Best weights of the generation before
+     * @param seed Seed of the generation's deals
+     * @param from First pair
+     * @param to Pair after the last
+     * @return Task returning the member's half points
+     */
+    private Callable<Integer> task(final Heuristic heuristic, final Heuristic champion, final long seed,
+            final int from, final int to) {
+        return new Callable<Integer>() {
+            @Override
+            public Integer call() {
+                Supplier<IPlayer> member = () -> new HeuristicOpponent(heuristic);
+                Supplier<IPlayer> best = () -> new HeuristicOpponent(champion);
+                int points = 0;
+                for (int pair = from; pair < to; pair++) {
+                    long pairSeed = seed + pair * 0x9E3779B97F4A7C15L;
+                    points += ABTest.pair(pairSeed, member, pair % 2 == 0 ? Opponent::new : best);
+                }
+                return points;
+            }
+        };
+    }
+
+    /**
+     * Picks a parent: the fittest of a few members drawn at random
+     *
+     * @param fitness Scores of the members
+     * @return Index of the parent
+     */
+    private int pick(double[] fitness) {
+        int best = random.nextInt(size);
+        for (int draw = 1; draw < TOURNAMENT; draw++) {
+            int other = random.nextInt(size);
+            if (fitness[other] > fitness[best]) {
+                best = other;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Blends two parents gene by gene, each weight anywhere between the
+     * parents' and a little beyond
+     *
+     * @param mother One parent's weights
+     * @param father Other parent's weights
+     * @return Child's weights
+     */
+    private double[] blend(double[] mother, double[] father) {
+        double[] child = new double[mother.length];
+        for (int index = 0; index < child.length; index++) {
+            double share = -0.25 + 1.5 * random.nextDouble();
+            child[index] = mother[index] + share * (father[index] - mother[index]);
+        }
+        return child;
+    }
+
+    /**
+     * Adds normal noise to some weights
+     *
+     * @param weights Weights to change in place
+     * @param chance Chance of changing each weight
+     * @param spread Standard deviation of the noise
+     * @return The weights
+     */
+    private double[] mutate(double[] weights, double chance, double spread) {
+        for (int index = 0; index < weights.length; index++) {
+            if (random.nextDouble() < chance) {
+                weights[index] += spread * gaussian();
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * Draws from the standard normal distribution
+     *
+     * @return Normal deviate
+     */
+    private double gaussian() {
+        double u = 1 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    /**
+     * Reports the end of a generation. Does nothing unless overridden.
+     *
+     * @param generation Number of the generation, from 0
+     * @param best Best weights
+     * @param bestFitness Mean score of the best weights
+     * @param meanFitness Mean score of the generation
+     */
+    protected void generation(int generation, Heuristic best, double bestFitness, double meanFitness) {
+    }
+
+    /**
+     * Tunes weights, then checks them against Opponent with an A/B test
+     *
+     * @param args Number of generations, default 30; members per
+     * generation, default 32; game pairs per member, default 400
+     */
+    public static void main(String[] args) {
+        int generations = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int pairs = args.length > 2 ? Integer.parseInt(args[2]) : 400;
+        Tuner tuner = new Tuner(size, pairs, System.nanoTime()) {
+            @Override
+            protected void generation(int generation, Heuristic best, double bestFitness, double meanFitness) {
+                System.out.printf("Generation %d: best %.4f, mean %.4f, %s%n", generation + 1, bestFitness,
+                        meanFitness, best);
+            }
+        };
+        long start = System.nanoTime();
+        Heuristic best = tuner.evolve(generations);
+        System.out.printf("Tuned in %.1f s%n", (System.nanoTime() - start) / 1e9);
+        ABTest ab = new ABTest(Opponent::new, () -> new HeuristicOpponent(best));
+        System.out.println(ab.run(new Sprt(0, 5, 0.05, 0.05), 1000000));
+    }
+}